@@ -0,0 +1,85 @@
+package pq;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Producers and consumers sharing one queue: ConcurrentPriorityQueue against a PriorityQueue
+// behind one global lock (what callers had to do before). Each group runs 4 producer and 4
+// consumer threads on a queue that starts with size tasks.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class ConcurrentPriorityQueueBenchmark {
+
+    @Param({"1000", "100000"})
+    int size;
+
+    // how many sub-queues each dequeue compares.
+    @Param({"2", "4"})
+    int choices;
+
+    ConcurrentPriorityQueue multiQueue;
+    PriorityQueue locked;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        multiQueue = new ConcurrentPriorityQueue(2 * Runtime.getRuntime().availableProcessors(), choices);
+        locked = new PriorityQueue(size);
+        for (int i = 0; i < size; i++) {
+            int priority = ThreadLocalRandom.current().nextInt(size);
+            multiQueue.enqueue("task", priority);
+            locked.enqueue("task", priority);
+        }
+    }
+
+    @Benchmark
+    @Group("multiQueue")
+    @GroupThreads(4)
+    public void multiQueueProducer() {
+        multiQueue.enqueue("task", ThreadLocalRandom.current().nextInt(size));
+    }
+
+    @Benchmark
+    @Group("multiQueue")
+    @GroupThreads(4)
+    public String multiQueueConsumer() {
+        return multiQueue.poll();
+    }
+
+    @Benchmark
+    @Group("globalLock")
+    @GroupThreads(4)
+    public void globalLockProducer() {
+        int priority = ThreadLocalRandom.current().nextInt(size);
+        synchronized (locked) {
+            locked.enqueue("task", priority);
+        }
+    }
+
+    @Benchmark
+    @Group("globalLock")
+    @GroupThreads(4)
+    public String globalLockConsumer() {
+        synchronized (locked) {
+            return locked.isEmpty() ? null : locked.dequeue();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package pq;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Scheduling a job for later and cancelling it again while size other jobs are waiting (spread over
+// the next hour): in the timing wheel of DelayedJobQueue against keeping the delayed jobs in a
+// PriorityQueue keyed by due time (enqueue and remove by handle). The clock stands still, so nothing
+// becomes due during the benchmark.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DelayedJobQueueBenchmark {
+
+    static final long HOUR = TimeUnit.HOURS.toNanos(1);
+
+    @Param({"1000", "1000000"})
+    int size;
+
+    DelayedJobQueue wheel;
+    PriorityQueue heap;
+    long[] delays;
+    int cursor;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Random random = new Random(42);
+        delays = new long[1 << 16];
+        for (int i = 0; i < delays.length; i++) {
+            delays[i] = 1 + (long) (random.nextDouble() * HOUR);
+        }
+        wheel = new DelayedJobQueue(TimeUnit.MILLISECONDS.toNanos(1), 0, () -> 0L);
+        heap = new PriorityQueue(size + 1);
+        for (int i = 0; i < size; i++) {
+            long delay = 1 + (long) (random.nextDouble() * HOUR);
+            wheel.scheduleAt("task", 0, delay);
+            heap.enqueue("task", (int) (delay / TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+        cursor = 0;
+    }
+
+    @Benchmark
+    public boolean wheelScheduleAndCancel() {
+        long timer = wheel.scheduleAt("task", 0, delays[cursor++ & (delays.length - 1)]);
+        return wheel.cancel(timer);
+    }
+
+    @Benchmark
+    public String heapScheduleAndCancel() {
+        long delay = delays[cursor++ & (delays.length - 1)];
+        long handle = heap.enqueue("task", (int) (delay / TimeUnit.MILLISECONDS.toNanos(1)));
+        return heap.remove(handle);
+    }
+}
@@ -0,0 +1,37 @@
+package pq;
+
+import java.util.Random;
+
+// The priority distributions the benchmarks are run with. Each one fills an array with
+// priorities; start is how many priorities came before, so a monotone sequence can be
+// continued from where the last call stopped.
+public enum Distribution {
+    // priorities drawn uniformly from 0 up to the number of tasks.
+    UNIFORM,
+    // only 8 different priorities, so almost every comparison is a tie.
+    FEW_DISTINCT,
+    // every task is less urgent than the one before it (new tasks stay at the bottom).
+    ASCENDING,
+    // every task is more urgent than the one before it, so every enqueue sifts all the way
+    // up to the front. This is the worst case for upheap.
+    DESCENDING;
+
+    void fill(int[] out, int start, int range, Random random) {
+        for (int i = 0; i < out.length; i++) {
+            switch (this) {
+                case UNIFORM:
+                    out[i] = random.nextInt(Math.max(range, 1));
+                    break;
+                case FEW_DISTINCT:
+                    out[i] = random.nextInt(8);
+                    break;
+                case ASCENDING:
+                    out[i] = start + i;
+                    break;
+                default:
+                    out[i] = Integer.MAX_VALUE - (start + i);
+                    break;
+            }
+        }
+    }
+}
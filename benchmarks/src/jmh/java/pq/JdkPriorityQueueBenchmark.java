@@ -0,0 +1,131 @@
+package pq;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// The baseline for PriorityQueueBenchmark: the same workloads run against
+// java.util.PriorityQueue holding one Job per task, ordered by priority.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JdkPriorityQueueBenchmark {
+
+    static final Comparator<Job> BY_PRIORITY = Comparator.comparingInt(Job::getPriority);
+
+    @Param({"10", "1000", "100000", "10000000"})
+    int size;
+
+    @Param({"UNIFORM", "FEW_DISTINCT", "ASCENDING", "DESCENDING"})
+    Distribution distribution;
+
+    String[] names;
+    int[] priorities;
+    int[] holdPriorities;
+    int holdCursor;
+    PriorityQueue<Job> queue;
+    PriorityQueue<Job> scratch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        String[] pool = new String[PriorityQueueBenchmark.NAMES];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = "task-" + i;
+        }
+        names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = pool[i & (pool.length - 1)];
+        }
+        priorities = new int[size];
+        distribution.fill(priorities, 0, size, random);
+        holdPriorities = new int[1 << 16];
+        distribution.fill(holdPriorities, size, size, random);
+        queue = new PriorityQueue<>(size, BY_PRIORITY);
+        scratch = new PriorityQueue<>(size, BY_PRIORITY);
+    }
+
+    @Setup(Level.Iteration)
+    public void fillQueue() {
+        queue.clear();
+        for (int i = 0; i < size; i++) {
+            queue.add(new Job(names[i], priorities[i]));
+        }
+        holdCursor = 0;
+    }
+
+    @State(Scope.Thread)
+    public static class Filled {
+        PriorityQueue<Job> queue;
+
+        @Setup(Level.Invocation)
+        public void refill(JdkPriorityQueueBenchmark benchmark) {
+            if (queue == null) {
+                queue = new PriorityQueue<>(benchmark.size, BY_PRIORITY);
+            }
+            queue.clear();
+            for (int i = 0; i < benchmark.size; i++) {
+                queue.add(new Job(benchmark.names[i], benchmark.priorities[i]));
+            }
+        }
+    }
+
+    @Benchmark
+    public int fill() {
+        PriorityQueue<Job> q = scratch;
+        q.clear();
+        for (int i = 0; i < size; i++) {
+            q.add(new Job(names[i], priorities[i]));
+        }
+        return q.size();
+    }
+
+    @Benchmark
+    public void drain(Filled filled, Blackhole blackhole) {
+        PriorityQueue<Job> q = filled.queue;
+        while (!q.isEmpty()) {
+            blackhole.consume(q.poll().getTaskName());
+        }
+    }
+
+    @Benchmark
+    public int clear(Filled filled) {
+        filled.queue.clear();
+        return filled.queue.size();
+    }
+
+    @Benchmark
+    public String peekTask() {
+        return queue.peek().getTaskName();
+    }
+
+    @Benchmark
+    public int peekPriority() {
+        return queue.peek().getPriority();
+    }
+
+    @Benchmark
+    public String hold() {
+        String task = queue.poll().getTaskName();
+        queue.add(new Job(task, holdPriorities[holdCursor++ & (holdPriorities.length - 1)]));
+        return task;
+    }
+}
@@ -0,0 +1,77 @@
+package pq;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The hold model on PriorityQueue against OffHeapPriorityQueue, with the task names drawn from a
+// fixed set of names (as in a real backlog, where many tasks share a name). Run with the GC profiler
+// to compare the allocation rate and GC time; the off-heap queue needs direct memory for the largest
+// size (the build passes -Xmx4g, which is also the default direct memory cap).
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class OffHeapPriorityQueueBenchmark {
+
+    static final int NAMES = 1000;
+
+    @Param({"1000", "1000000", "10000000"})
+    int size;
+
+    @Param({"HEAP", "OFF_HEAP"})
+    String kind;
+
+    TaskQueue queue;
+    String[] names;
+    int[] priorities;
+    int cursor;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Random random = new Random(42);
+        names = new String[NAMES];
+        for (int i = 0; i < NAMES; i++) {
+            names[i] = "task-" + i;
+        }
+        priorities = new int[1 << 16];
+        for (int i = 0; i < priorities.length; i++) {
+            priorities[i] = random.nextInt();
+        }
+        queue = TaskQueue.create(TaskQueue.Kind.valueOf(kind), Integer.MAX_VALUE);
+        for (int i = 0; i < size; i++) {
+            queue.enqueue(names[random.nextInt(NAMES)], random.nextInt());
+        }
+        cursor = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (queue instanceof OffHeapPriorityQueue) {
+            ((OffHeapPriorityQueue) queue).close();
+        }
+    }
+
+    @Benchmark
+    public String hold() {
+        String task = queue.dequeue();
+        int i = cursor++ & (priorities.length - 1);
+        queue.enqueue(names[i % NAMES], priorities[i]);
+        return task;
+    }
+}
@@ -0,0 +1,69 @@
+package pq;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Merging two shards of size tasks each: PairingHeap.meld (shards sharing an arena) against moving
+// every task of one PriorityQueue into another with dequeue and enqueue. Every measurement is one
+// merge of freshly filled shards, so the mode is single shot.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class PairingHeapBenchmark {
+
+    @Param({"1000", "1000000"})
+    int size;
+
+    PairingHeap pairingA;
+    PairingHeap pairingB;
+    PriorityQueue heapA;
+    PriorityQueue heapB;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        Random random = new Random(42);
+        pairingA = new PairingHeap();
+        pairingB = new PairingHeap(pairingA);
+        heapA = new PriorityQueue(size * 2);
+        heapB = new PriorityQueue(size);
+        for (int i = 0; i < size; i++) {
+            int a = random.nextInt();
+            int b = random.nextInt();
+            pairingA.enqueue("task", a);
+            pairingB.enqueue("task", b);
+            heapA.enqueue("task", a);
+            heapB.enqueue("task", b);
+        }
+    }
+
+    @Benchmark
+    public int meld() {
+        pairingA.meld(pairingB);
+        return pairingA.peekPriority();
+    }
+
+    @Benchmark
+    public int rebalanceArrayHeap() {
+        while (!heapB.isEmpty()) {
+            int priority = heapB.peekPriority();
+            heapA.enqueue(heapB.dequeue(), priority);
+        }
+        return heapA.peekPriority();
+    }
+}
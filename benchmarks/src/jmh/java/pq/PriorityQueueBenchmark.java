@@ -0,0 +1,155 @@
+package pq;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Benchmarks for pq.PriorityQueue. JdkPriorityQueueBenchmark runs the same workloads against
+// java.util.PriorityQueue so the two can be compared side by side.
+//
+// fill, drain, bulkLoad and clear work on the whole queue, so their score is per batch of
+// size tasks. peekTask, peekPriority and hold are single operations on a queue that stays at
+// size tasks; hold is the classic hold model (one dequeue followed by one enqueue). top100 is
+// the dashboard query: the 100 most urgent tasks, in order, without removing them.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PriorityQueueBenchmark {
+
+    // number of distinct task names; the names are shared so 10M tasks do not need 10M strings.
+    static final int NAMES = 1024;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    int size;
+
+    @Param({"UNIFORM", "FEW_DISTINCT", "ASCENDING", "DESCENDING"})
+    Distribution distribution;
+
+    @Param({"2", "4", "8"})
+    int arity;
+
+    String[] names;             // the task name of every task, by insertion order.
+    int[] priorities;           // the priority of every task, by insertion order.
+    int[] holdPriorities;       // the priorities enqueued by hold, continuing the distribution.
+    int holdCursor;
+    PriorityQueue queue;        // filled with size tasks before every iteration.
+    PriorityQueue scratch;      // the queue the batch benchmarks fill and empty.
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        String[] pool = new String[NAMES];
+        for (int i = 0; i < NAMES; i++) {
+            pool[i] = "task-" + i;
+        }
+        names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = pool[i & (NAMES - 1)];
+        }
+        priorities = new int[size];
+        distribution.fill(priorities, 0, size, random);
+        holdPriorities = new int[1 << 16];
+        distribution.fill(holdPriorities, size, size, random);
+        queue = new PriorityQueue(size, arity);
+        scratch = new PriorityQueue(size, arity);
+    }
+
+    @Setup(Level.Iteration)
+    public void fillQueue() {
+        queue.clear();
+        queue.enqueueAll(names, priorities);
+        holdCursor = 0;
+    }
+
+    // the batch benchmarks that start from a full queue refill it before every call. With the
+    // smaller sizes the call is short enough that JMH's per-invocation overhead shows up in the
+    // score, so compare those against the baseline rather than reading them as absolute numbers.
+    @State(Scope.Thread)
+    public static class Filled {
+        PriorityQueue queue;
+
+        @Setup(Level.Invocation)
+        public void refill(PriorityQueueBenchmark benchmark) {
+            if (queue == null) {
+                queue = new PriorityQueue(benchmark.size, benchmark.arity);
+            }
+            queue.clear();
+            queue.enqueueAll(benchmark.names, benchmark.priorities);
+        }
+    }
+
+    // clear the queue and enqueue size tasks one at a time (the arrays never have to grow).
+    @Benchmark
+    public int fill() {
+        PriorityQueue q = scratch;
+        q.clear();
+        for (int i = 0; i < size; i++) {
+            q.enqueue(names[i], priorities[i]);
+        }
+        return q.size();
+    }
+
+    // clear the queue and load size tasks at once with enqueueAll.
+    @Benchmark
+    public int bulkLoad() {
+        PriorityQueue q = scratch;
+        q.clear();
+        q.enqueueAll(names, priorities);
+        return q.size();
+    }
+
+    // dequeue every task of a full queue.
+    @Benchmark
+    public void drain(Filled filled, Blackhole blackhole) {
+        PriorityQueue q = filled.queue;
+        while (!q.isEmpty()) {
+            blackhole.consume(q.dequeue());
+        }
+    }
+
+    // clear a full queue.
+    @Benchmark
+    public int clear(Filled filled) {
+        filled.queue.clear();
+        return filled.queue.size();
+    }
+
+    @Benchmark
+    public int top100(Blackhole blackhole) {
+        return queue.topK((taskName, priority) -> blackhole.consume(priority), 100);
+    }
+
+    @Benchmark
+    public String peekTask() {
+        return queue.peekTask();
+    }
+
+    @Benchmark
+    public int peekPriority() {
+        return queue.peekPriority();
+    }
+
+    // one dequeue followed by one enqueue, so the queue stays at size tasks.
+    @Benchmark
+    public String hold() {
+        String task = queue.dequeue();
+        queue.enqueue(task, holdPriorities[holdCursor++ & (holdPriorities.length - 1)]);
+        return task;
+    }
+}
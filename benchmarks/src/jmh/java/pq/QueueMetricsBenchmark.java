@@ -0,0 +1,61 @@
+package pq;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// What the metrics cost: the hold model on a PriorityQueue with no metrics attached (0) against the
+// same queue with QueueMetrics attached that time every operation (1) or every 16th one (16). None
+// of them should show allocation under the GC profiler.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class QueueMetricsBenchmark {
+
+    @Param({"1000", "1000000"})
+    int size;
+
+    @Param({"0", "1", "16"})
+    int sampleInterval;
+
+    PriorityQueue queue;
+    int[] priorities;
+    int cursor;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Random random = new Random(42);
+        priorities = new int[1 << 16];
+        for (int i = 0; i < priorities.length; i++) {
+            priorities[i] = random.nextInt();
+        }
+        queue = new PriorityQueue(size);
+        for (int i = 0; i < size; i++) {
+            queue.enqueue("task", random.nextInt());
+        }
+        queue.setMetrics(sampleInterval > 0 ? new QueueMetrics(sampleInterval) : null);
+        cursor = 0;
+    }
+
+    @Benchmark
+    public String hold() {
+        String task = queue.dequeue();
+        queue.enqueue(task, priorities[cursor++ & (priorities.length - 1)]);
+        return task;
+    }
+}
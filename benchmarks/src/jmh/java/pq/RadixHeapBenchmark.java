@@ -0,0 +1,60 @@
+package pq;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The monotone hold model: every dequeued task comes back with its priority plus a random step, so
+// priorities only ever grow (as in an event simulation). The heap against the radix heap.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RadixHeapBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({"HEAP", "RADIX"})
+    String kind;
+
+    TaskQueue queue;
+    int[] steps;
+    int cursor;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Random random = new Random(42);
+        steps = new int[1 << 16];
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = random.nextInt(1000);
+        }
+        queue = TaskQueue.create(TaskQueue.Kind.valueOf(kind), 0);
+        for (int i = 0; i < size; i++) {
+            queue.enqueue("task", random.nextInt(1000));
+        }
+        cursor = 0;
+    }
+
+    @Benchmark
+    public String hold() {
+        int priority = queue.peekPriority() + steps[cursor++ & (steps.length - 1)];
+        String task = queue.dequeue();
+        queue.enqueue(task, priority);
+        return task;
+    }
+}
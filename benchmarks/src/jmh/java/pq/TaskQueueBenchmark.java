@@ -0,0 +1,61 @@
+package pq;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The hold model (one dequeue followed by one enqueue at a steady size) with small priorities from
+// 0 to 1000, for the heap against the bucket queue.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TaskQueueBenchmark {
+
+    static final int MAX_PRIORITY = 1000;
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({"HEAP", "BUCKET"})
+    String kind;
+
+    TaskQueue queue;
+    int[] priorities;
+    int cursor;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Random random = new Random(42);
+        priorities = new int[1 << 16];
+        for (int i = 0; i < priorities.length; i++) {
+            priorities[i] = random.nextInt(MAX_PRIORITY + 1);
+        }
+        queue = TaskQueue.create(TaskQueue.Kind.valueOf(kind), MAX_PRIORITY);
+        for (int i = 0; i < size; i++) {
+            queue.enqueue("task", random.nextInt(MAX_PRIORITY + 1));
+        }
+        cursor = 0;
+    }
+
+    @Benchmark
+    public String hold() {
+        String task = queue.dequeue();
+        queue.enqueue(task, priorities[cursor++ & (priorities.length - 1)]);
+        return task;
+    }
+}
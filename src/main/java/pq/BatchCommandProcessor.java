@@ -0,0 +1,286 @@
+package pq;                         // all of the task management classes live in the pq package.
+
+import java.io.IOException;                         // thrown by the input and output streams.
+import java.io.InputStream;                         // where the commands come from.
+import java.io.OutputStream;                        // where the results go.
+import java.nio.charset.StandardCharsets;           // task names are read and written as UTF-8.
+import java.util.Arrays;                            // grows the input buffer for very long lines.
+
+// BatchCommandProcessor class description:
+// Runs a stream of queue commands without the menu, for replaying recorded traces and bulk imports.
+// There is one command per line, the words separated by spaces or tabs:
+//     enqueue <task> <priority>    adds a task (the priority must not be negative, as in the menu)
+//     dequeue                      removes the most urgent task and prints its name, or EMPTY
+//     peek                         prints the most urgent task and its priority, or EMPTY
+//     clear                        removes every task
+//     size                         prints the number of tasks
+// Blank lines and lines starting with # are skipped. A bad line prints "error: line N: ..." in
+// place of its result and the processor carries on with the next line.
+// The input is read into a byte buffer in large blocks and the lines are split and parsed straight
+// from that buffer (no Scanner, no regex, no String per line; only a task name that is enqueued
+// becomes a String). The results are collected in an output buffer that is written in large blocks.
+class BatchCommandProcessor {
+    static final int BUFFER_SIZE = 1 << 16;         // the size of the input and output buffers.
+    static final byte[] ENQUEUE = bytes("enqueue");
+    static final byte[] DEQUEUE = bytes("dequeue");
+    static final byte[] PEEK = bytes("peek");
+    static final byte[] CLEAR = bytes("clear");
+    static final byte[] SIZE = bytes("size");
+    static final byte[] EMPTY = bytes("EMPTY");
+
+    final TaskQueue queue;          // the queue the commands run against.
+    final InputStream in;           // the commands.
+    final OutputStream out;         // the results.
+    byte[] input = new byte[BUFFER_SIZE];   // the bytes read from in that are not processed yet.
+    int start = 0;                  // the first unprocessed byte in input.
+    int end = 0;                    // one past the last byte read into input.
+    final byte[] output = new byte[BUFFER_SIZE];    // the results not written to out yet.
+    int outputEnd = 0;              // one past the last result byte in output.
+    long lineNumber = 0;            // the number of the line being processed.
+    int tokenStart;                 // the start of the word found by the last call to nextToken.
+    int tokenEnd;                   // one past the end of that word.
+
+    // Constructor that runs commands from in against the queue and writes the results to out.
+    public BatchCommandProcessor(TaskQueue queue, InputStream in, OutputStream out) {
+        this.queue = queue;
+        this.in = in;
+        this.out = out;
+    }
+
+    // this method processes every command until the input ends and returns how many lines were
+    // read. The results are flushed before it returns.
+    public long run() throws IOException {
+        while (true) {
+            int newline = indexOfNewline(start, end);
+            if (newline >= 0) {
+                processLine(start, newline);
+                start = newline + 1;
+            } else if (!fill()) {
+                if (start < end) {
+                    processLine(start, end);    // the last line had no newline.
+                    start = end;
+                }
+                break;
+            }
+        }
+        flush();
+        return lineNumber;
+    }
+
+    // this method reads more input. The unprocessed part of the buffer is moved to the front first
+    // (and the buffer grows if a single line fills all of it). Returns false at the end of the input.
+    boolean fill() throws IOException {
+        if (start > 0) {
+            System.arraycopy(input, start, input, 0, end - start);
+            end -= start;
+            start = 0;
+        }
+        if (end == input.length) {
+            input = Arrays.copyOf(input, input.length * 2);
+        }
+        int read = in.read(input, end, input.length - end);
+        if (read < 0) {
+            return false;
+        }
+        end += read;
+        return true;
+    }
+
+    // this method returns the index of the first newline from index from up to to, or -1.
+    int indexOfNewline(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (input[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // this method runs the command on the line from index from up to to (the newline excluded).
+    void processLine(int from, int to) throws IOException {
+        lineNumber++;
+        if (to > from && input[to - 1] == '\r') {
+            to--;                           // lines may end in \r\n.
+        }
+        if (!nextToken(from, to) || input[tokenStart] == '#') {
+            return;                         // a blank line or a comment.
+        }
+        int commandStart = tokenStart;
+        int commandEnd = tokenEnd;
+        if (is(ENQUEUE, commandStart, commandEnd)) {
+            enqueue(tokenEnd, to);
+            return;
+        }
+        if (nextToken(tokenEnd, to)) {
+            error("unexpected word after the command");
+        } else if (is(DEQUEUE, commandStart, commandEnd)) {
+            if (queue.isEmpty()) {
+                println(EMPTY);
+            } else {
+                println(queue.dequeue());
+            }
+        } else if (is(PEEK, commandStart, commandEnd)) {
+            if (queue.isEmpty()) {
+                println(EMPTY);
+            } else {
+                write(queue.peekTask());
+                write((byte) ' ');
+                writeInt(queue.peekPriority());
+                write((byte) '\n');
+            }
+        } else if (is(CLEAR, commandStart, commandEnd)) {
+            queue.clear();
+        } else if (is(SIZE, commandStart, commandEnd)) {
+            writeInt(queue.size());
+            write((byte) '\n');
+        } else {
+            error("unknown command");
+        }
+    }
+
+    // this method parses the task name and priority of an enqueue command and enqueues the task.
+    void enqueue(int from, int to) throws IOException {
+        if (!nextToken(from, to)) {
+            error("enqueue needs a task and a priority");
+            return;
+        }
+        int nameStart = tokenStart;
+        int nameEnd = tokenEnd;
+        if (!nextToken(tokenEnd, to)) {
+            error("enqueue needs a task and a priority");
+            return;
+        }
+        int priorityStart = tokenStart;
+        int priorityEnd = tokenEnd;
+        if (nextToken(tokenEnd, to)) {
+            error("unexpected word after the priority");
+            return;
+        }
+        int priority = 0;
+        for (int i = priorityStart; i < priorityEnd; i++) {
+            int digit = input[i] - '0';
+            if (digit < 0 || digit > 9) {
+                error("priority must be a positive integer");
+                return;
+            }
+            if (priority > (Integer.MAX_VALUE - digit) / 10) {
+                error("priority is too large");
+                return;
+            }
+            priority = priority * 10 + digit;
+        }
+        queue.enqueue(new String(input, nameStart, nameEnd - nameStart, StandardCharsets.UTF_8), priority);
+    }
+
+    // this method finds the next word from index from up to to and stores it in tokenStart and
+    // tokenEnd. It returns false if there are only spaces and tabs left.
+    boolean nextToken(int from, int to) {
+        while (from < to && (input[from] == ' ' || input[from] == '\t')) {
+            from++;
+        }
+        if (from == to) {
+            return false;
+        }
+        int i = from;
+        while (i < to && input[i] != ' ' && input[i] != '\t') {
+            i++;
+        }
+        tokenStart = from;
+        tokenEnd = i;
+        return true;
+    }
+
+    // this method returns true if the bytes from index from up to to are exactly the keyword.
+    boolean is(byte[] keyword, int from, int to) {
+        if (to - from != keyword.length) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length; i++) {
+            if (input[from + i] != keyword[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // this method prints an error for the current line.
+    void error(String message) throws IOException {
+        write("error: line ");
+        writeLong(lineNumber);
+        write(": ");
+        write(message);
+        write((byte) '\n');
+    }
+
+    void println(byte[] bytes) throws IOException {
+        for (byte b : bytes) {
+            write(b);
+        }
+        write((byte) '\n');
+    }
+
+    void println(String text) throws IOException {
+        write(text);
+        write((byte) '\n');
+    }
+
+    // this method writes a string to the output buffer. ASCII characters are copied byte by byte,
+    // anything else goes through the UTF-8 encoder.
+    void write(String text) throws IOException {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {                // not plain ASCII: encode the rest properly.
+                byte[] encoded = text.substring(i).getBytes(StandardCharsets.UTF_8);
+                for (byte b : encoded) {
+                    write(b);
+                }
+                return;
+            }
+            write((byte) c);
+        }
+    }
+
+    // this method writes a number in decimal without creating a String.
+    void writeInt(int value) throws IOException {
+        writeLong(value);
+    }
+
+    void writeLong(long value) throws IOException {
+        if (value < 0) {
+            write((byte) '-');
+            if (value == Long.MIN_VALUE) {
+                write("9223372036854775808");
+                return;
+            }
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            write((byte) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    // this method adds one byte to the output buffer, writing the buffer out when it is full.
+    void write(byte b) throws IOException {
+        if (outputEnd == output.length) {
+            out.write(output, 0, outputEnd);
+            outputEnd = 0;
+        }
+        output[outputEnd++] = b;
+    }
+
+    // this method writes out everything in the output buffer.
+    void flush() throws IOException {
+        out.write(output, 0, outputEnd);
+        outputEnd = 0;
+        out.flush();
+    }
+
+    static byte[] bytes(String keyword) {
+        return keyword.getBytes(StandardCharsets.US_ASCII);
+    }
+}
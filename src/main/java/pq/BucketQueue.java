@@ -0,0 +1,133 @@
+package pq;                         // all of the task management classes live in the pq package.
+
+import java.util.Arrays;                    // fills the bucket arrays.
+import java.util.NoSuchElementException;    // thrown when dequeue is called on an empty queue.
+
+// BucketQueue class description:
+// A task queue for small non-negative priorities (0 to maxPriority). There is one bucket per priority,
+// each a FIFO linked list of tasks, so enqueue is O(1) and tasks with the same priority come out in
+// the order they went in (the heap in PriorityQueue cannot promise that). A bitmap has one bit per
+// bucket that is set while the bucket has tasks, and a summary bitmap has one bit per 64 bucket bits,
+// so the most urgent non-empty bucket is found with a couple of numberOfTrailingZeros calls instead
+// of comparisons: with up to 4096 priorities that is a single summary word.
+class BucketQueue implements TaskQueue {
+    static final int AUTO_MAX_PRIORITY = 1 << 16;   // the largest maxPriority TaskQueue.create(AUTO) uses
+                                                    // a bucket queue for.
+
+    final int maxPriority;          // the largest priority the queue accepts.
+    final TaskNodes nodes = new TaskNodes();    // the tasks.
+    final int[] heads;              // the first node of every bucket, or NONE.
+    final int[] tails;              // the last node of every bucket, or NONE.
+    final long[] occupied;          // bit p is set while bucket p has tasks.
+    final long[] summary;           // bit w is set while occupied[w] is not 0.
+    int size = 0;                   // the number of tasks in the queue.
+
+    // Constructor that makes a bucket for every priority from 0 to maxPriority.
+    public BucketQueue(int maxPriority) {
+        if (maxPriority < 0 || maxPriority >= PriorityQueue.MAX_CAPACITY) {     // Check the range is usable.
+            throw new IllegalArgumentException("The largest priority must be between 0 and "
+                    + (PriorityQueue.MAX_CAPACITY - 1) + ".");
+        }
+        this.maxPriority = maxPriority;
+        int buckets = maxPriority + 1;
+        heads = new int[buckets];
+        tails = new int[buckets];
+        Arrays.fill(heads, TaskNodes.NONE);
+        Arrays.fill(tails, TaskNodes.NONE);
+        occupied = new long[(buckets + 63) >>> 6];
+        summary = new long[(occupied.length + 63) >>> 6];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // this method removes every task. Only the buckets that have tasks are visited.
+    public void clear() {
+        for (int w = 0; w < occupied.length; w++) {
+            long bits = occupied[w];
+            while (bits != 0) {
+                int bucket = (w << 6) + Long.numberOfTrailingZeros(bits);
+                heads[bucket] = TaskNodes.NONE;
+                tails[bucket] = TaskNodes.NONE;
+                bits &= bits - 1;   // clear the lowest set bit.
+            }
+            occupied[w] = 0;
+        }
+        Arrays.fill(summary, 0);
+        nodes.clear();
+        size = 0;
+    }
+
+    // this method adds a task to the end of the bucket for its priority. The returned handle is the
+    // node of the task.
+    public long enqueue(String taskName, int priority) {
+        if (priority < 0 || priority > maxPriority) {   // Check the priority has a bucket.
+            throw new IllegalArgumentException("Priority must be between 0 and " + maxPriority + ".");
+        }
+        int node = nodes.add(taskName, priority);
+        int tail = tails[priority];
+        if (tail == TaskNodes.NONE) {
+            heads[priority] = node;     // the bucket was empty, mark it in the bitmaps.
+            occupied[priority >>> 6] |= 1L << priority;
+            summary[priority >>> 12] |= 1L << (priority >>> 6);
+        } else {
+            nodes.next[tail] = node;
+        }
+        tails[priority] = node;
+        size++;
+        return node;
+    }
+
+    // this method removes and returns the first task of the most urgent non-empty bucket.
+    public String dequeue() {
+        if (size == 0) {                // Check if the queue is empty.
+            throw new NoSuchElementException("Cannot dequeue from an empty queue.");
+        }
+        int bucket = firstBucket();
+        int node = heads[bucket];
+        int next = nodes.next[node];
+        heads[bucket] = next;
+        if (next == TaskNodes.NONE) {   // the bucket is empty now, clear its bits.
+            tails[bucket] = TaskNodes.NONE;
+            int w = bucket >>> 6;
+            occupied[w] &= ~(1L << bucket);
+            if (occupied[w] == 0) {
+                summary[w >>> 6] &= ~(1L << w);
+            }
+        }
+        String task = nodes.tasks[node];
+        nodes.release(node);
+        size--;
+        return task;
+    }
+
+    public String peekTask() {
+        if (size == 0) {
+            return "TASK LIST EMPTY\n\nADD A TASK TO THE QUEUE";
+        }
+        return nodes.tasks[heads[firstBucket()]];
+    }
+
+    public int peekPriority() {
+        if (size == 0) {                // Check if the queue is empty.
+            System.out.println("TASK LIST EMPTY\n\nADD A TASK TO THE QUEUE");
+            return -1;
+        }
+        return firstBucket();           // the bucket number is the priority.
+    }
+
+    // this method returns the most urgent non-empty bucket. The queue must not be empty.
+    int firstBucket() {
+        int s = 0;
+        while (summary[s] == 0) {       // one word covers 4096 buckets.
+            s++;
+        }
+        int w = (s << 6) + Long.numberOfTrailingZeros(summary[s]);
+        return (w << 6) + Long.numberOfTrailingZeros(occupied[w]);
+    }
+}
@@ -0,0 +1,278 @@
+package pq;                         // all of the task management classes live in the pq package.
+
+import java.util.NoSuchElementException;            // thrown when dequeue is called on an empty queue.
+import java.util.concurrent.ThreadLocalRandom;      // picks the sub-queue a thread works on.
+import java.util.concurrent.TimeUnit;               // the unit of the timeout passed to take.
+import java.util.concurrent.atomic.AtomicInteger;   // counts the consumers waiting in take.
+import java.util.concurrent.locks.Condition;        // the consumers waiting in take sleep on it.
+import java.util.concurrent.locks.ReentrantLock;    // guards each sub-queue.
+
+// ConcurrentPriorityQueue class description:
+// A thread safe priority queue for many producer and many consumer threads. It has the same
+// enqueue/dequeue/peekTask/peekPriority contract as PriorityQueue (lower number = higher priority).
+// Instead of one heap behind one lock (which every thread would fight over) the tasks are spread
+// over several sub-queues, each one a PriorityQueue with its own lock. This design is known as a
+// MultiQueue:
+//  - enqueue puts the task into a random sub-queue whose lock is free.
+//  - dequeue looks at the front priority of a few random sub-queues (choices of them) and removes
+//    the front task of the best one.
+// Because only a few sub-queues are looked at, dequeue is relaxed: it returns one of the most
+// urgent tasks, not always the single most urgent one. The more sub-queues are looked at the
+// stricter it gets; with one sub-queue, or choices equal to the number of sub-queues, a dequeue
+// always looks at every front. Consumers that should sleep until a task arrives call take instead
+// of spinning on isEmpty.
+class ConcurrentPriorityQueue {
+    // A Stripe is one sub-queue with its lock. top and size are copies of the front priority and
+    // the size of the heap, written while holding the lock and read without it, so dequeue can
+    // compare sub-queues without locking them.
+    static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final PriorityQueue heap = new PriorityQueue();
+        volatile int top;           // the priority at the front of heap (only valid when size > 0).
+        volatile int size;          // the number of tasks in heap.
+
+        // copies the front priority and size of the heap. Must be called while holding the lock.
+        void publish() {
+            if (!heap.isEmpty()) {
+                top = heap.peekPriority();
+            }
+            size = heap.size();
+        }
+    }
+
+    final Stripe[] stripes;         // the sub-queues.
+    final int choices;              // how many sub-queues a dequeue compares (the strictness knob).
+    final ReentrantLock waitLock = new ReentrantLock();     // guards notEmpty.
+    final Condition notEmpty = waitLock.newCondition();     // signalled when a task is enqueued.
+    final AtomicInteger waiting = new AtomicInteger();      // the number of consumers inside take.
+
+    // Constructor that uses two sub-queues per processor and compares two sub-queues per dequeue.
+    public ConcurrentPriorityQueue() {
+        this(2 * Runtime.getRuntime().availableProcessors(), 2);
+    }
+
+    // Constructor that picks the number of sub-queues and how many of them each dequeue compares.
+    // More sub-queues means less waiting on locks, a higher choices means a stricter order.
+    public ConcurrentPriorityQueue(int stripeCount, int choices) {
+        if (stripeCount < 1) {          // Check there is at least one sub-queue.
+            throw new IllegalArgumentException("There must be at least one sub-queue.");
+        }
+        if (choices < 1) {              // Check dequeue looks at at least one sub-queue.
+            throw new IllegalArgumentException("Dequeue must compare at least one sub-queue.");
+        }
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.choices = Math.min(choices, stripeCount);
+    }
+
+    // this method returns true if no sub-queue holds a task. Other threads may change that at any
+    // moment, so it is only a snapshot.
+    public boolean isEmpty() {
+        for (Stripe stripe : stripes) {
+            if (stripe.size > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // this method returns the number of tasks in all of the sub-queues. Like isEmpty it is only a
+    // snapshot while other threads are running.
+    public int size() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            total += stripe.size;
+        }
+        return total;
+    }
+
+    // this method removes every task. It locks every sub-queue in turn, so tasks enqueued while it
+    // runs may survive the clear.
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.heap.clear();
+                stripe.publish();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    // this method adds a task to the queue. It tries the locks of random sub-queues until it finds a
+    // free one, so producers almost never wait on each other. After a few busy sub-queues it waits
+    // for the lock of the last one it tried.
+    public void enqueue(String taskName, int priority) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Stripe stripe = stripes[random.nextInt(stripes.length)];
+        for (int attempt = 0; !stripe.lock.tryLock(); attempt++) {
+            if (attempt == stripes.length) {    // every try was busy: wait for this one.
+                stripe.lock.lock();
+                break;
+            }
+            stripe = stripes[random.nextInt(stripes.length)];
+        }
+        try {
+            stripe.heap.enqueue(taskName, priority);
+            stripe.publish();
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (waiting.get() > 0) {                // only touch the wait lock if a consumer is asleep.
+            waitLock.lock();
+            try {
+                notEmpty.signal();
+            } finally {
+                waitLock.unlock();
+            }
+        }
+    }
+
+    // this method removes and returns one of the most urgent tasks, or returns null if the queue is
+    // empty. If the sub-queue it picked is busy it picks again. After a few busy sub-queues it waits
+    // for the lock of the last one it picked, so a consumer does not spin while the thread holding
+    // the lock is not running.
+    public String poll() {
+        for (int attempt = 0; ; attempt++) {
+            Stripe stripe = pick();
+            if (stripe == null) {
+                return null;                    // every sub-queue was empty.
+            }
+            if (attempt >= stripes.length) {
+                stripe.lock.lock();             // every try was busy: wait for this one.
+            } else if (!stripe.lock.tryLock()) {
+                continue;                       // another thread is using it, pick again.
+            }
+            try {
+                if (!stripe.heap.isEmpty()) {
+                    String task = stripe.heap.dequeue();
+                    stripe.publish();
+                    return task;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    // this method removes and returns one of the most urgent tasks. Unlike PriorityQueue, checking
+    // isEmpty first does not make this safe (another consumer may take the last task in between), so
+    // consumers should prefer poll or take.
+    public String dequeue() {
+        String task = poll();
+        if (task == null) {                     // Check if the queue was empty.
+            throw new NoSuchElementException("Cannot dequeue from an empty queue.");
+        }
+        return task;
+    }
+
+    // this method waits until a task is available and then removes and returns it.
+    public String take() throws InterruptedException {
+        String task;
+        while ((task = take(Long.MAX_VALUE, TimeUnit.NANOSECONDS)) == null) {
+            // a wait of Long.MAX_VALUE nanoseconds only ends early if a task arrived and another
+            // consumer got it first, so just wait again.
+        }
+        return task;
+    }
+
+    // this method waits up to the timeout for a task to become available and then removes and
+    // returns it. It returns null if the timeout runs out first. The consumer sleeps on a condition,
+    // it does not spin on isEmpty.
+    public String take(long timeout, TimeUnit unit) throws InterruptedException {
+        String task = poll();
+        if (task != null) {
+            return task;                        // the common case never touches the wait lock.
+        }
+        long nanos = unit.toNanos(timeout);
+        waitLock.lockInterruptibly();
+        waiting.incrementAndGet();              // producers signal from now on. This happens before
+        try {                                   // the isEmpty check below, so no signal is missed.
+            while ((task = poll()) == null) {
+                if (nanos <= 0) {
+                    return null;                // the timeout ran out.
+                }
+                if (isEmpty()) {
+                    nanos = notEmpty.awaitNanos(nanos);
+                }
+            }
+            return task;
+        } finally {
+            waiting.decrementAndGet();
+            waitLock.unlock();
+        }
+    }
+
+    // this method returns the priority of one of the most urgent tasks without removing it. If the
+    // queue is empty it prints a message and returns -1, the same as PriorityQueue.
+    public int peekPriority() {
+        Stripe stripe = best();
+        if (stripe == null) {                   // Check if the queue is empty.
+            System.out.println("TASK LIST EMPTY\n\nADD A TASK TO THE QUEUE");
+            return -1;
+        }
+        return stripe.top;
+    }
+
+    // this method returns the name of the most urgent task without removing it, or the same empty
+    // message as PriorityQueue.peekTask if the queue is empty.
+    public String peekTask() {
+        while (true) {
+            Stripe stripe = best();
+            if (stripe == null) {
+                return "TASK LIST EMPTY\n\nADD A TASK TO THE QUEUE";
+            }
+            stripe.lock.lock();
+            try {
+                if (!stripe.heap.isEmpty()) {
+                    return stripe.heap.peekTask();
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    // this method picks the sub-queue a dequeue should remove from: the non-empty one with the most
+    // urgent front out of choices random sub-queues. If all of those were empty it falls back to
+    // looking at every sub-queue. It returns null when every sub-queue is empty.
+    Stripe pick() {
+        if (choices >= stripes.length) {
+            return best();
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Stripe chosen = null;
+        int chosenTop = 0;
+        for (int i = 0; i < choices; i++) {
+            Stripe stripe = stripes[random.nextInt(stripes.length)];
+            if (stripe.size > 0) {
+                int top = stripe.top;
+                if (chosen == null || top < chosenTop) {
+                    chosen = stripe;
+                    chosenTop = top;
+                }
+            }
+        }
+        return chosen != null ? chosen : best();
+    }
+
+    // this method returns the non-empty sub-queue with the most urgent front, or null if every
+    // sub-queue is empty.
+    Stripe best() {
+        Stripe chosen = null;
+        int chosenTop = 0;
+        for (Stripe stripe : stripes) {
+            if (stripe.size > 0) {
+                int top = stripe.top;
+                if (chosen == null || top < chosenTop) {
+                    chosen = stripe;
+                    chosenTop = top;
+                }
+            }
+        }
+        return chosen;
+    }
+}
@@ -0,0 +1,240 @@
+package pq;                         // all of the task management classes live in the pq package.
+
+import java.util.NoSuchElementException;            // thrown when dequeue is called with nothing due.
+import java.util.concurrent.TimeUnit;               // the unit of the delays, the tick and the aging interval.
+import java.util.function.LongSupplier;             // the clock, System.nanoTime unless a test passes its own.
+
+// DelayedJobQueue class description:
+// A task queue that knows about time. Besides tasks that can run right away it takes tasks that must
+// not run before a given time ("run not before T"), and it can age waiting tasks so that a steady
+// stream of urgent tasks does not starve the rest.
+//  - Delayed tasks wait in a TimingWheel, not in the heap: scheduling and cancelling them is O(1), so
+//    millions of future tasks cost no heap work while they wait. Every read of the queue (isEmpty,
+//    size, dequeue, the peeks) first promotes the tasks that have become due into a PriorityQueue,
+//    all at once: they are appended and the heap is fixed up once (see PriorityQueue.heapify).
+//  - With aging on, a task gains one level of priority for every agingInterval it has been due. No
+//    task is ever touched to do that: the heap key of a task is its priority plus the number of aging
+//    intervals that had passed when it became due, and the effective priority of a task is its key
+//    minus the intervals that have passed by now. The second part is the same for every task, so the
+//    order of the keys is the order of the effective priorities. Only when the interval count gets
+//    large enough to risk overflowing an int are all of the keys shifted down at once, in one pass
+//    over the heap array that does not change their order. A key is at most the priority plus
+//    REBASE_INTERVALS, so with aging on the priorities must be between 0 and MAX_AGED_PRIORITY. A
+//    task that has waited about 2^31 aging intervals stops gaining priority, it ties with the other
+//    tasks that have waited that long.
+// Only tasks that are due count for isEmpty, size, dequeue and the peeks; delayed() counts the
+// tasks that are still waiting. Time is measured in ticks of tickNanos (1 ms by default), a task is
+// never promoted before its time but may be promoted up to one tick after it.
+class DelayedJobQueue implements TaskQueue {
+    static final long REBASE_INTERVALS = 1L << 30;  // shift the keys once this many aging intervals passed.
+    static final int MAX_AGED_PRIORITY = (int) (Integer.MAX_VALUE - REBASE_INTERVALS);  // the largest
+                                                    // priority whose key always fits in an int.
+
+    final PriorityQueue ready = new PriorityQueue();    // the tasks that are due, by key.
+    final TimingWheel wheel = new TimingWheel();        // the tasks that are not due yet.
+    final LongSupplier clock;       // returns the time in nanoseconds.
+    final long origin;              // the time of tick 0 (the clock when the queue was made).
+    final long tickNanos;           // the length of one tick of the wheel.
+    final long agingNanos;          // the aging interval, or 0 if tasks do not age.
+    long baseInterval = 0;          // the aging interval the keys in ready are counted from.
+
+    // Constructor for a queue with 1 ms ticks and no aging.
+    public DelayedJobQueue() {
+        this(TimeUnit.MILLISECONDS.toNanos(1), 0, System::nanoTime);
+    }
+
+    // Constructor for a queue with 1 ms ticks in which a task gains one level of priority for every
+    // agingInterval it waits after it is due.
+    public DelayedJobQueue(long agingInterval, TimeUnit unit) {
+        this(TimeUnit.MILLISECONDS.toNanos(1), unit.toNanos(agingInterval), System::nanoTime);
+    }
+
+    // Constructor that picks everything: the tick length and the aging interval in nanoseconds (0 for
+    // no aging) and the clock.
+    public DelayedJobQueue(long tickNanos, long agingNanos, LongSupplier clock) {
+        if (tickNanos < 1) {                // Check the tick has a length.
+            throw new IllegalArgumentException("The tick must be at least one nanosecond.");
+        }
+        if (agingNanos < 0) {               // Check the aging interval makes sense.
+            throw new IllegalArgumentException("The aging interval must not be negative.");
+        }
+        this.tickNanos = tickNanos;
+        this.agingNanos = agingNanos;
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+    }
+
+    // this method returns true if no task is due.
+    public boolean isEmpty() {
+        promoteDue();
+        return ready.isEmpty();
+    }
+
+    // this method returns the number of tasks that are due.
+    public int size() {
+        promoteDue();
+        return ready.size();
+    }
+
+    // this method returns the number of tasks that are not due yet.
+    public int delayed() {
+        return wheel.size;
+    }
+
+    // this method removes every task, due or not.
+    public void clear() {
+        ready.clear();
+        wheel.clear();
+    }
+
+    // this method adds a task that is due right away and returns its handle in the queue of due tasks.
+    public long enqueue(String taskName, int priority) {
+        checkPriority(priority);
+        long now = clock.getAsLong();
+        rebaseIfDue(now);
+        return ready.enqueue(taskName, key(priority, now));
+    }
+
+    // this method adds a task that must not run before delay from now. It returns a timer that can
+    // be passed to cancel, or -1 if the delay is not positive and the task is due right away. A delay
+    // too long to count in ticks (like Long.MAX_VALUE nanoseconds) means the task is never due.
+    public long schedule(String taskName, int priority, long delay, TimeUnit unit) {
+        return scheduleIn(taskName, priority, clock.getAsLong(), unit.toNanos(delay));
+    }
+
+    // this method adds the job so that it does not run before delay from now, see schedule.
+    public long schedule(Job job, long delay, TimeUnit unit) {
+        return schedule(job.getTaskName(), job.getPriority(), delay, unit);
+    }
+
+    // this method adds a task that must not run before the clock reaches timeNanos. It returns a timer
+    // that can be passed to cancel, or -1 if that time has already come and the task is due right away.
+    // Like System.nanoTime values, timeNanos is compared with the clock by their difference.
+    public long scheduleAt(String taskName, int priority, long timeNanos) {
+        long now = clock.getAsLong();
+        return scheduleIn(taskName, priority, now, timeNanos - now);
+    }
+
+    // this method adds a task that is due delayNanos after now. The deadline tick is worked out from
+    // the time since the origin plus the delay, rounded up so the task is never early, and stops at
+    // Long.MAX_VALUE instead of overflowing (a tick the wheel never reaches).
+    long scheduleIn(String taskName, int priority, long now, long delayNanos) {
+        checkPriority(priority);
+        if (delayNanos <= 0) {              // already due: skip the wheel.
+            rebaseIfDue(now);
+            ready.enqueue(taskName, key(priority, now));
+            return -1;
+        }
+        long elapsed = Math.max(0, now - origin);
+        long elapsedRest = elapsed % tickNanos;
+        long delayRest = delayNanos % tickNanos;
+        long roundUp = (elapsedRest | delayRest) == 0 ? 0 : delayRest > tickNanos - elapsedRest ? 2 : 1;
+        long tick = saturatedAdd(saturatedAdd(elapsed / tickNanos, delayNanos / tickNanos), roundUp);
+        return wheel.add(taskName, priority, tick);
+    }
+
+    // returns a + b for two values that are not negative, or Long.MAX_VALUE if the sum does not fit.
+    static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    // this method throws if tasks age and the priority is outside 0 to MAX_AGED_PRIORITY, where its
+    // key could not be told apart from the keys of other tasks any more.
+    void checkPriority(int priority) {
+        if (agingNanos > 0 && (priority < 0 || priority > MAX_AGED_PRIORITY)) {
+            throw new IllegalArgumentException("With aging the priority must be between 0 and " + MAX_AGED_PRIORITY + ".");
+        }
+    }
+
+    // this method cancels a task that is not due yet. It returns false if the timer is not waiting
+    // any more (the task is due already, was cancelled, or the queue was cleared). A timer names one
+    // task only, so cancelling it late never touches a task scheduled after it.
+    public boolean cancel(long timer) {
+        return wheel.cancel(timer);
+    }
+
+    // this method removes and returns the most urgent task that is due.
+    public String dequeue() {
+        promoteDue();
+        if (ready.isEmpty()) {              // Check a task is due.
+            throw new NoSuchElementException("Cannot dequeue from an empty queue.");
+        }
+        return ready.dequeue();
+    }
+
+    // this method returns the most urgent task that is due without removing it, or a message if no
+    // task is due.
+    public String peekTask() {
+        promoteDue();
+        return ready.peekTask();
+    }
+
+    // this method returns the effective priority (its priority minus what it has aged, but not below
+    // 0) of the most urgent task that is due. If no task is due it prints a message and returns -1.
+    public int peekPriority() {
+        promoteDue();
+        int key = ready.peekPriority();     // prints the empty message if no task is due.
+        if (agingNanos == 0 || ready.isEmpty()) {
+            return key;                     // without aging the key is the priority (or -1).
+        }
+        long aged = (long) key - (interval(clock.getAsLong()) - baseInterval);
+        return (int) Math.max(0, Math.min(aged, Integer.MAX_VALUE));
+    }
+
+    // this method moves every task that has become due from the wheel into the queue of due tasks
+    // and returns how many it moved. The reads of the queue call it, so it only has to be called
+    // directly to promote tasks ahead of time.
+    public int promoteDue() {
+        long now = clock.getAsLong();
+        rebaseIfDue(now);
+        int node = wheel.advance(Math.max(0, (now - origin) / tickNanos));
+        if (node == TimingWheel.NONE) {
+            return 0;
+        }
+        int oldSize = ready.size();
+        int promoted = 0;
+        while (node != TimingWheel.NONE) {
+            int following = wheel.next[node];
+            ready.ensureCapacity(ready.size() + 1);
+            ready.append(wheel.tasks[node], key(wheel.priorities[node], origin + wheel.deadlines[node] * tickNanos));
+            wheel.release(node);
+            node = following;
+            promoted++;
+        }
+        ready.heapify(oldSize);             // one fix-up for the whole batch.
+        return promoted;
+    }
+
+    // this method returns the heap key of a task with the given priority that became due at dueNanos:
+    // the priority plus the aging intervals between the base interval and then. Callers rebase first,
+    // so that is less than REBASE_INTERVALS and the key of an accepted priority fits in an int. Only
+    // a task that was due about 2^31 intervals before it is promoted stops at Integer.MIN_VALUE.
+    int key(int priority, long dueNanos) {
+        if (agingNanos == 0) {
+            return priority;
+        }
+        long key = (long) priority + (interval(dueNanos) - baseInterval);
+        return (int) Math.max(Math.min(key, Integer.MAX_VALUE), Integer.MIN_VALUE);
+    }
+
+    // this method rebases the keys once REBASE_INTERVALS aging intervals have passed since the base.
+    void rebaseIfDue(long now) {
+        if (agingNanos > 0 && interval(now) - baseInterval >= REBASE_INTERVALS) {
+            rebase(interval(now));
+        }
+    }
+
+    // returns the number of aging intervals from the origin to the time.
+    long interval(long timeNanos) {
+        return Math.max(0, timeNanos - origin) / agingNanos;
+    }
+
+    // this method counts the keys from a new base interval, which shifts every key down by the same
+    // amount. A shift (that stops at Integer.MIN_VALUE) keeps the keys in the same order, so the heap
+    // stays a heap and nothing has to be sifted.
+    void rebase(long newBaseInterval) {
+        ready.shiftPriorities(newBaseInterval - baseInterval);
+        baseInterval = newBaseInterval;
+    }
+}
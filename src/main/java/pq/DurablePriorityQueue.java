@@ -0,0 +1,636 @@
+package pq;                         // all of the task management classes live in the pq package.
+
+import java.io.IOException;                         // thrown by the log and snapshot files.
+import java.io.UncheckedIOException;                // wraps IOExceptions from enqueue, dequeue and clear.
+import java.nio.ByteBuffer;                         // the batch of log records and the snapshot contents.
+import java.nio.MappedByteBuffer;                   // snapshots are written and read through memory maps.
+import java.nio.charset.StandardCharsets;           // the snapshot stores the task names as UTF-8.
+import java.nio.channels.FileChannel;               // the log and snapshot files.
+import java.nio.file.Files;                         // checks for and moves the files.
+import java.nio.file.Path;                          // the directory the queue keeps its files in.
+import java.nio.file.StandardCopyOption;            // makes the move of a new file into place atomic.
+import java.nio.file.StandardOpenOption;            // how the files are opened.
+import java.util.concurrent.locks.Condition;        // wakes the committer when there is something to commit.
+import java.util.concurrent.locks.ReentrantLock;    // guards the queue, the batch and the log.
+import java.util.zip.CRC32;                         // checksums every batch in the log.
+
+// DurablePriorityQueue class description:
+// A PriorityQueue whose tasks survive a crash or restart. It has the same enqueue/dequeue/peekTask/
+// peekPriority/clear contract and keeps two files in its directory:
+//  - queue.wal, a write-ahead log. Every enqueue, dequeue and clear appends a small binary record to
+//    an in-memory batch before it changes the queue. A full batch is written to the file as one frame
+//    (length, CRC32, records). A background committer thread forces the file to disk (fsync) once
+//    the oldest operation not forced yet is one commit interval old, so all the operations of an
+//    interval share one fsync (group commit), and a burst of operations followed by silence is still
+//    committed on time. sync() forces everything logged so far right away.
+//  - queue.snapshot, a compact copy of the heap (priorities and UTF-8 task names in heap order),
+//    written through memory maps whenever the log grows past the snapshot threshold, or when
+//    snapshot() is called. After a snapshot the log starts over. A snapshot that cannot be written
+//    leaves the old snapshot and log in place, so it does not fail the queue: an automatic one is
+//    tried again once the log has grown by another threshold.
+// Both files are mapped in windows of at most MAP_WINDOW_BYTES, so neither has a size limit.
+// open() recovers the queue by loading the snapshot and replaying the log written after it. Because
+// the heap is restored in exactly the same layout and the heap operations are deterministic, every
+// replayed dequeue removes the same task it removed before the crash. A frame that was only partly
+// written when the process died fails its checksum; recovery stops there and cuts it off the log.
+// Operations logged after the last fsync can be lost in a crash, at most one commit interval's worth.
+// Both files carry a generation number so a log that is older than the snapshot is never replayed.
+// If writing or forcing a file fails the queue is marked failed: the queue in memory may then be
+// ahead of the files, so every later operation throws and the queue has to be opened again.
+// The queue may be used from several threads; every operation holds one lock.
+class DurablePriorityQueue implements AutoCloseable {
+    static final int MAGIC = 0x50514451;            // "PQDQ", the first four bytes of both files.
+    static final int VERSION = 2;                   // the file format version (2: UTF-8 snapshot names).
+    static final int HEADER_BYTES = 16;             // magic, version and generation.
+    static final int FRAME_HEADER_BYTES = 8;        // the length and CRC32 of a frame.
+    static final byte ENQUEUE = 1;                  // record: priority, name length, name chars.
+    static final byte DEQUEUE = 2;                  // record: nothing else.
+    static final byte CLEAR = 3;                    // record: nothing else.
+    static final String LOG_FILE = "queue.wal";
+    static final String SNAPSHOT_FILE = "queue.snapshot";
+    static final int MAP_WINDOW_BYTES = 64 * 1024 * 1024;  // the most of a file mapped at once.
+
+    final Path directory;           // where the log and snapshot live.
+    final long commitIntervalNanos; // the longest time a logged operation waits for its fsync.
+    final long snapshotThreshold;   // the log size (in bytes) that triggers a snapshot.
+    final PriorityQueue queue;      // the tasks, in memory.
+    final CRC32 crc = new CRC32();  // reused for every frame.
+    final ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+    final ByteBuffer[] frame = new ByteBuffer[2];   // the frame header and the batch, written together.
+    final ReentrantLock lock = new ReentrantLock(); // guards every field below and the queue.
+    final Condition logging = lock.newCondition();  // signalled when an operation is logged and nothing
+                                                    // was waiting for a commit before, and on close.
+    ByteBuffer batch;               // the records not written to the log yet.
+    FileChannel log;                // the open log file.
+    long logSize;                   // the number of bytes written to the log file.
+    long generation;                // the generation of the current snapshot and log.
+    boolean unsynced = false;       // true if records were written to the log since the last fsync.
+    boolean pending = false;        // true if operations were logged since the last fsync.
+    long pendingSince;              // System.nanoTime() of the oldest of those operations.
+    IOException failure;            // the error that made the queue fail, or null.
+    long snapshotAt;                // the log size that triggers the next automatic snapshot.
+    IOException snapshotFailure;    // why the last automatic snapshot failed, or null if it did not.
+    boolean closed = false;         // true once close was called.
+    Thread committer;               // forces the log once pending operations are a commit interval old.
+
+    // Constructor used by open once the queue has been recovered.
+    DurablePriorityQueue(Path directory, PriorityQueue queue, FileChannel log, long generation,
+                         int batchBytes, long commitIntervalMillis, long snapshotThreshold) throws IOException {
+        this.directory = directory;
+        this.queue = queue;
+        this.log = log;
+        this.logSize = log.position();      // the log is always positioned at its end.
+        this.generation = generation;
+        this.batch = ByteBuffer.allocate(batchBytes);
+        this.commitIntervalNanos = commitIntervalMillis * 1_000_000L;
+        this.snapshotThreshold = snapshotThreshold;
+        this.snapshotAt = snapshotThreshold;
+    }
+
+    // this method opens (or creates) the queue stored in the directory with a 64 KB batch, a 5 ms
+    // commit interval and a snapshot every 64 MB of log.
+    public static DurablePriorityQueue open(Path directory) throws IOException {
+        return open(directory, 64 * 1024, 5, 64L * 1024 * 1024);
+    }
+
+    // this method opens (or creates) the queue stored in the directory. batchBytes is the size of the
+    // in-memory batch of records, commitIntervalMillis the longest time a logged operation waits for
+    // its fsync (0 forces the log after every operation), and snapshotThreshold the log size that
+    // triggers a snapshot.
+    public static DurablePriorityQueue open(Path directory, int batchBytes, long commitIntervalMillis,
+                                            long snapshotThreshold) throws IOException {
+        if (batchBytes < 64) {              // Check a batch can hold a few records.
+            throw new IllegalArgumentException("The batch must be at least 64 bytes.");
+        }
+        if (commitIntervalMillis < 0) {     // Check the commit interval makes sense.
+            throw new IllegalArgumentException("The commit interval must not be negative.");
+        }
+        Files.createDirectories(directory);
+        PriorityQueue queue = new PriorityQueue();
+        long generation = 0;
+        Path snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshotPath)) {
+            generation = readSnapshot(snapshotPath, queue, MAP_WINDOW_BYTES);
+        }
+        Path logPath = directory.resolve(LOG_FILE);
+        FileChannel log;
+        if (Files.exists(logPath) && logGeneration(logPath) == generation) {
+            log = FileChannel.open(logPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long end = replay(log, queue, MAP_WINDOW_BYTES);
+            log.truncate(end);              // cut off a frame that was only partly written.
+            log.position(end);
+        } else {
+            log = newLog(directory, generation);    // no log yet, or one older than the snapshot.
+        }
+        DurablePriorityQueue durable = new DurablePriorityQueue(directory, queue, log, generation,
+                batchBytes, commitIntervalMillis, snapshotThreshold);
+        durable.committer = new Thread(durable::commitLoop, "durable-queue-committer");
+        durable.committer.setDaemon(true);  // an unclosed queue must not keep the program running.
+        durable.committer.start();
+        return durable;
+    }
+
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return queue.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String peekTask() {
+        lock.lock();
+        try {
+            return queue.peekTask();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int peekPriority() {
+        lock.lock();
+        try {
+            return queue.peekPriority();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // this method logs a task and then adds it to the queue.
+    public void enqueue(String taskName, int priority) {
+        lock.lock();
+        try {
+            checkUsable();
+            int length = taskName.length();
+            ensureRoom(1 + 4 + 4 + 2 * length);
+            batch.put(ENQUEUE).putInt(priority).putInt(length);
+            for (int i = 0; i < length; i++) {  // the name is logged as chars so nothing is allocated.
+                batch.putChar(taskName.charAt(i));
+            }
+            queue.enqueue(taskName, priority);
+            logged();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // this method logs the removal of the most urgent task, then removes and returns it. Like
+    // PriorityQueue.dequeue it throws if the queue is empty, and then nothing is logged.
+    public String dequeue() {
+        lock.lock();
+        try {
+            checkUsable();
+            if (queue.isEmpty()) {          // Check there is a task before logging its removal.
+                return queue.dequeue();     // throws.
+            }
+            ensureRoom(1);
+            batch.put(DEQUEUE);
+            String task = queue.dequeue();
+            logged();
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // this method logs the clear, then removes every task.
+    public void clear() {
+        lock.lock();
+        try {
+            checkUsable();
+            ensureRoom(1);
+            batch.put(CLEAR);
+            queue.clear();
+            logged();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // this method throws if the queue was closed or has failed. Must be called while holding the lock.
+    void checkUsable() {
+        if (failure != null) {
+            throw new IllegalStateException("The queue failed to write its log and must be opened again.", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("The queue is closed.");
+        }
+    }
+
+    // this method makes sure the batch has room for a record of the given size. A full batch is
+    // written to the log first; a record bigger than a whole batch gets a bigger batch.
+    void ensureRoom(int bytes) {
+        if (batch.remaining() < bytes) {
+            writeBatch();
+            if (batch.capacity() < bytes) {
+                batch = ByteBuffer.allocate(bytes);
+            }
+        }
+    }
+
+    // this method is called at the end of every operation, once the queue and the log agree. The
+    // first operation after an fsync wakes the committer, which forces the log one commit interval
+    // later; the operations that come in until then share that fsync. A log that has grown past the
+    // threshold is synced (and so snapshotted) right here, never in the middle of an operation.
+    void logged() {
+        if (!pending) {
+            pending = true;
+            pendingSince = System.nanoTime();
+            logging.signal();
+        }
+        if (commitIntervalNanos == 0 || logSize >= snapshotAt) {
+            sync();
+        }
+    }
+
+    // this method is the loop of the committer thread: it waits until the oldest pending operation
+    // is one commit interval old and then syncs. It ends when the queue is closed or has failed.
+    void commitLoop() {
+        lock.lock();
+        try {
+            while (!closed && failure == null) {
+                if (!pending) {
+                    logging.await();        // nothing to commit: sleep until something is logged.
+                    continue;
+                }
+                long wait = pendingSince + commitIntervalNanos - System.nanoTime();
+                if (wait > 0) {
+                    logging.awaitNanos(wait);
+                    continue;
+                }
+                try {
+                    sync();
+                } catch (UncheckedIOException e) {
+                    return;                 // the queue is marked failed, the next operation throws.
+                }
+            }
+        } catch (InterruptedException e) {
+            // interrupted: stop committing, close syncs what is left.
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // this method writes the batch to the log as one frame: its length, its CRC32 and the records.
+    // It does not fsync.
+    void writeBatch() {
+        if (batch.position() == 0) {
+            return;                         // nothing to write.
+        }
+        batch.flip();
+        crc.reset();
+        crc.update(batch.array(), 0, batch.limit());
+        frameHeader.clear();
+        frameHeader.putInt(batch.limit()).putInt((int) crc.getValue()).flip();
+        frame[0] = frameHeader;
+        frame[1] = batch;
+        try {
+            while (frameHeader.hasRemaining() || batch.hasRemaining()) {
+                log.write(frame);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(failed(e));
+        }
+        logSize += FRAME_HEADER_BYTES + batch.limit();
+        batch.clear();
+        unsynced = true;
+    }
+
+    // this method marks the queue failed and returns the error. The log may now hold part of a frame
+    // or miss records the queue in memory already applied, so nothing more may be logged.
+    IOException failed(IOException e) {
+        if (failure == null) {
+            failure = e;
+        }
+        logging.signalAll();                // let the committer see it and stop.
+        return e;
+    }
+
+    // this method writes the batch and forces the log to disk, so every operation so far survives a
+    // crash. If the log has grown past the snapshot threshold it also takes a snapshot. A snapshot
+    // that fails without failing the queue is kept in snapshotFailure and tried again later.
+    public void sync() {
+        lock.lock();
+        try {
+            checkUsable();
+            writeBatch();
+            try {
+                if (unsynced) {
+                    log.force(false);
+                    unsynced = false;
+                }
+                pending = false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(failed(e));
+            }
+            if (logSize >= snapshotAt) {
+                try {
+                    snapshot();
+                } catch (IOException e) {
+                    if (failure != null) {
+                        throw new UncheckedIOException(e);
+                    }
+                    snapshotFailure = e;    // the log still holds everything, go on with it.
+                    snapshotAt = logSize + snapshotThreshold;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // this method writes the heap to a new snapshot and starts a new, empty log. Each new file is
+    // written under a temporary name and moved into place, and the snapshot goes first. A crash in
+    // between leaves a snapshot that is one generation ahead of the log, so the log is ignored.
+    // After each move the directory is forced too, otherwise the move itself could be lost. If the
+    // snapshot cannot be written the old files are left as they were and the queue goes on with
+    // them; only a failure after the new snapshot is in place fails the queue.
+    public void snapshot() throws IOException {
+        lock.lock();
+        try {
+            checkUsable();
+            writeBatch();
+            long next = generation + 1;
+            Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+            try {
+                writeSnapshot(temp, queue, next, MAP_WINDOW_BYTES);
+                Files.move(temp, directory.resolve(SNAPSHOT_FILE),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // the next snapshot truncates it anyway.
+                }
+                throw e;                    // nothing has changed yet, the queue goes on with the old files.
+            }
+            try {
+                syncDirectory(directory);
+                log.close();
+                log = newLog(directory, next);
+            } catch (IOException e) {
+                throw failed(e);            // the new snapshot is in place, the old log no longer counts.
+            }
+            logSize = log.position();
+            generation = next;
+            unsynced = false;
+            pending = false;
+            snapshotAt = snapshotThreshold;
+            snapshotFailure = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // this method commits everything logged so far, stops the committer and closes the log.
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            try {
+                if (failure == null) {
+                    sync();
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                closed = true;
+                logging.signalAll();        // the committer sees closed and ends.
+                log.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // this method stops the committer and closes the log without writing the batch, which leaves
+    // the files the way a crash of the process would. Used to test recovery.
+    void abandon() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            logging.signalAll();
+            log.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // this method writes the tasks of the queue, in heap order, to a snapshot file through memory
+    // maps of at most windowBytes: the header, the number of tasks, every priority, then every name
+    // (its length in bytes and its UTF-8 bytes). The file grows window by window and is cut to the
+    // bytes written at the end.
+    static void writeSnapshot(Path path, PriorityQueue queue, long generation, int windowBytes) throws IOException {
+        int size = queue.size;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedWindow out = new MappedWindow(channel, FileChannel.MapMode.READ_WRITE, windowBytes);
+            long position = 0;
+            out.at(position, HEADER_BYTES + 4).putInt(MAGIC).putInt(VERSION).putLong(generation).putInt(size);
+            position += HEADER_BYTES + 4;
+            for (int i = 0; i < size; i++) {
+                out.at(position, 4).putInt(queue.priorities[i]);
+                position += 4;
+            }
+            for (int i = 0; i < size; i++) {
+                byte[] name = queue.tasks[queue.handles[i]].getBytes(StandardCharsets.UTF_8);
+                out.at(position, 4 + name.length).putInt(name.length).put(name);
+                position += 4 + name.length;
+            }
+            out.force();
+            channel.truncate(position);     // the last window may reach past the end.
+        }
+    }
+
+    // this method loads a snapshot into the (empty) queue and returns its generation. The tasks are
+    // appended in the order they were written, which rebuilds exactly the same heap.
+    static long readSnapshot(Path path, PriorityQueue queue, int windowBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedWindow in = new MappedWindow(channel, FileChannel.MapMode.READ_ONLY, windowBytes);
+            long position = 0;
+            ByteBuffer map = in.at(position, HEADER_BYTES + 4);
+            long generation = readHeader(map, path);
+            int count = map.getInt();
+            position += HEADER_BYTES + 4;
+            queue.ensureCapacity(count);
+            int[] priorities = new int[count];
+            for (int i = 0; i < count; i++) {
+                priorities[i] = in.at(position, 4).getInt();
+                position += 4;
+            }
+            for (int i = 0; i < count; i++) {
+                int length = in.at(position, 4).getInt();
+                byte[] name = new byte[length];
+                in.at(position + 4, length).get(name);
+                position += 4 + length;
+                queue.append(new String(name, StandardCharsets.UTF_8), priorities[i]);
+            }
+            return generation;
+        }
+    }
+
+    // this method returns the generation in the header of a log file.
+    static long logGeneration(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is complete or the file ends.
+            }
+            if (header.hasRemaining()) {
+                return -1;                  // not even a header was written: treat as no log.
+            }
+            header.flip();
+            return readHeader(header, path);
+        }
+    }
+
+    // this method replays every complete frame of the log into the queue and returns the position
+    // just after the last complete frame.
+    static long replay(FileChannel log, PriorityQueue queue, int windowBytes) throws IOException {
+        long size = log.size();
+        MappedWindow in = new MappedWindow(log, FileChannel.MapMode.READ_ONLY, windowBytes);
+        CRC32 crc = new CRC32();
+        long position = HEADER_BYTES;
+        while (size - position >= FRAME_HEADER_BYTES) {
+            ByteBuffer header = in.at(position, FRAME_HEADER_BYTES);
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length <= 0 || length > size - position - FRAME_HEADER_BYTES) {
+                return position;            // a frame that was only partly written.
+            }
+            ByteBuffer frame = in.at(position + FRAME_HEADER_BYTES, length).slice();
+            frame.limit(length);
+            crc.reset();
+            crc.update(frame.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                return position;            // a torn or damaged frame.
+            }
+            while (frame.hasRemaining()) {
+                byte op = frame.get();
+                if (op == ENQUEUE) {
+                    int priority = frame.getInt();
+                    queue.enqueue(readName(frame), priority);
+                } else if (op == DEQUEUE) {
+                    queue.dequeue();
+                } else if (op == CLEAR) {
+                    queue.clear();
+                } else {
+                    throw new IOException("Unknown record " + op + " in the log.");
+                }
+            }
+            position += FRAME_HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    // this method creates a new, empty log for the generation and moves it into place.
+    static FileChannel newLog(Path directory, long generation) throws IOException {
+        Path temp = directory.resolve(LOG_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putLong(generation).flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(true);
+        }
+        Path path = directory.resolve(LOG_FILE);
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(directory);
+        FileChannel log = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        log.position(log.size());
+        return log;
+    }
+
+    // this method forces the directory itself to disk, so that a file just moved into it is still
+    // there after a crash. Some systems (Windows) cannot open a directory; there the atomic move is
+    // all the file system offers and nothing more is done.
+    static void syncDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    // this method checks the magic number and version of a file and returns its generation.
+    static long readHeader(ByteBuffer buffer, Path path) throws IOException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException(path + " is not a queue file of version " + VERSION + ".");
+        }
+        return buffer.getLong();
+    }
+
+    // this method reads a task name of the log, written as its length followed by its chars.
+    static String readName(ByteBuffer buffer) {
+        char[] chars = new char[buffer.getInt()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = buffer.getChar();
+        }
+        return new String(chars);
+    }
+
+    // A MappedWindow maps a file a window at a time, so a file of any size can be read or written
+    // through memory maps even though a single map cannot be larger than 2 GB. at hands out the map
+    // positioned at a place in the file, mapping a new window there when the current one does not
+    // hold the bytes asked for. Buffers taken from an earlier window stay valid.
+    static final class MappedWindow {
+        final FileChannel channel;
+        final FileChannel.MapMode mode;
+        final int windowBytes;          // the size of a window (bigger only for a bigger record).
+        MappedByteBuffer map;           // the current window, or null before the first one.
+        long base;                      // the position in the file of the start of the window.
+
+        MappedWindow(FileChannel channel, FileChannel.MapMode mode, int windowBytes) {
+            this.channel = channel;
+            this.mode = mode;
+            this.windowBytes = windowBytes;
+        }
+
+        // returns the map positioned at position in the file, with at least bytes remaining. When
+        // reading, a file that ends before that is damaged. When writing, the file grows.
+        MappedByteBuffer at(long position, int bytes) throws IOException {
+            if (map == null || position < base || position + bytes > base + map.capacity()) {
+                long length = Math.max(windowBytes, bytes);
+                if (mode == FileChannel.MapMode.READ_ONLY) {
+                    long end = channel.size();
+                    if (end - position < bytes) {
+                        throw new IOException("The file ends in the middle of a record.");
+                    }
+                    length = Math.min(length, end - position);
+                } else if (map != null) {
+                    map.force();            // done with the last window.
+                }
+                map = channel.map(mode, position, length);
+                base = position;
+            }
+            map.limit(map.capacity()).position((int) (position - base));
+            return map;
+        }
+
+        // forces the current window to the file.
+        void force() {
+            if (map != null) {
+                map.force();
+            }
+        }
+    }
+}
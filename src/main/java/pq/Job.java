@@ -0,0 +1,77 @@
+package pq;                         // all of the task management classes live in the pq package.
+
+import java.util.concurrent.Callable;       // the work a Job can carry for the JobScheduler to run.
+import java.util.concurrent.Executors;      // turns a Runnable into a Callable.
+
+// Job class description: 
+// This class represents a job with a task name and priority.
+// Examples of tasks or Jobs may be "Do laundry", "Clean room", "Finish homework", etc.
+// The priority is an integer value that determines the order of the tasks in the queue. 
+// And is represented by the variable priority in the class.the priority is a non negative 
+// integer and the lower the number the higher the priority of the task. there are 3 instance 
+// variables in this class: taskName(String), priority(int) and work(Callable). work is optional, it is 
+// the code the JobScheduler runs for the job. there are 3 constructors in this class, one that takes in 
+// a task name and priority and two that also take in the work as a Runnable or a Callable.
+// there are 6 methods in this class: getPriority(), getTaskName(), getWork(), setPriority(int), 
+// setTaskName(String) and setWork(Callable).
+class Job {
+    private int priority;                           // the priority of the task is an integer value that determines 
+                                                    // the order of the tasks in the queue.
+    private String taskName;                        // the task name is a string that represents the task or job.
+    private Callable<?> work;                       // the work to run for this job, or null if the job is only
+                                                    // a name and a priority.
+
+
+    // Constructor that takes in a task name and priority as parameters and initializes 
+    // the instance variables(taskName and priority).
+    public Job(String initialTaskName, int initialPriority) {
+        taskName = initialTaskName;                 // Initialize the task name with the 
+                                                    // formal parameter(initialTaskName).
+        priority = initialPriority;                 // Initialize the priority with the 
+                                                    // formal parameter(initialPriority).
+    }
+
+    // Constructor that also takes in the work to run for the job. The result of the Callable is
+    // the result of the future the JobScheduler returns for the job.
+    public Job(String initialTaskName, int initialPriority, Callable<?> initialWork) {
+        this(initialTaskName, initialPriority);     // Initialize the task name and priority.
+        work = initialWork;                         // Initialize the work with the formal parameter(initialWork).
+    }
+
+    // Constructor that takes in work that has no result. The future of the job completes with null.
+    public Job(String initialTaskName, int initialPriority, Runnable initialWork) {
+        this(initialTaskName, initialPriority, Executors.callable(initialWork));
+    }
+
+    // Getters and Setters for the instance variables(taskName and priority).
+    // this method returns the priority of a instance of the job class.
+    public int getPriority() {
+        return priority;                            // Return the priority of the job.
+    }
+    // this method returns the task name of a instance of the job class.
+    public String getTaskName() {
+        return taskName;                            // Return the task name of the job.
+    }
+
+    // this method changes the priority of this job. A task that is already in a PriorityQueue
+    // does not move when this is called, use PriorityQueue.updatePriority with the task's handle.
+    public void setPriority(int newPriority) {
+        priority = newPriority;                     // Set the priority of the job to the 
+                                                    // newPriority(formal parameter).
+    }
+    // this method sets the task name of a instance of the job class.
+    public void setTaskName(String newTaskName) {
+        taskName = newTaskName;                     // Set the task name of the job to 
+                                                    // the newTaskName(formal parameter).
+    }
+
+    // this method returns the work of the job, or null if it has none.
+    public Callable<?> getWork() {
+        return work;                                // Return the work of the job.
+    }
+    // this method sets the work of the job. Setting it after the job was submitted to a
+    // JobScheduler does not change what the scheduler runs.
+    public void setWork(Callable<?> newWork) {
+        work = newWork;                             // Set the work of the job to the newWork(formal parameter).
+    }
+}
@@ -0,0 +1,329 @@
+package pq;                         // all of the task management classes live in the pq package.
+
+import java.util.Arrays;                            // grows the array of queued jobs.
+import java.util.concurrent.Callable;               // the work a job runs.
+import java.util.concurrent.CompletableFuture;      // the future handed back for every job.
+import java.util.concurrent.ExecutorService;        // the threads the jobs run on.
+import java.util.concurrent.Executors;              // builds the default executors.
+import java.util.concurrent.RejectedExecutionException;    // thrown when a job is submitted after shutdown.
+import java.util.concurrent.TimeUnit;               // the unit of the submit and shutdown timeouts.
+import java.util.concurrent.locks.Condition;        // producers wait on it while the queue is full.
+import java.util.concurrent.locks.ReentrantLock;    // guards the queue and the counters.
+
+// JobScheduler class description:
+// Runs the work carried by Jobs in priority order (lower number = higher priority) on an executor.
+// The jobs wait in a PriorityQueue; the entry for each job is kept in an array indexed by the low 32
+// bits of the handle PriorityQueue.enqueue returns, so no map lookup is needed to find a job again.
+//  - At most maxConcurrency jobs run at the same time. Instead of one dispatcher thread handing jobs
+//    out, every running worker takes the next most urgent job itself as soon as it finishes one, so
+//    the most urgent job starts as soon as a worker is free.
+//  - At most maxQueued jobs wait in the queue. submit blocks (backpressure) while the queue is full,
+//    offer gives up after a timeout.
+//  - Every job gets a CompletableFuture. Cancelling the future of a job that has not started removes
+//    it from the queue.
+// The executor is either one virtual thread per worker (on a Java 21 or newer runtime) or a bounded
+// pool of platform threads, see the factory methods.
+class JobScheduler implements AutoCloseable {
+    // An Entry is one submitted job: its work, its future and its handle in the queue.
+    static final class Entry {
+        final Callable<?> work;
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        long handle;                // the handle of the job in the queue while it is waiting.
+
+        Entry(Callable<?> work) {
+            this.work = work;
+        }
+
+        // runs the work and completes the future with its result or exception. A job that was
+        // cancelled while it was being taken out of the queue is skipped.
+        void run() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(work.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+    }
+
+    final ExecutorService executor;     // the threads the workers run on.
+    final int maxConcurrency;           // the most jobs that may run at the same time.
+    final int maxQueued;                // the most jobs that may wait in the queue.
+    final PriorityQueue queue = new PriorityQueue();    // the waiting jobs, by priority.
+    Entry[] entries = new Entry[PriorityQueue.CAPACITY];    // the waiting jobs, by handle.
+    int running = 0;                    // the number of workers that have been started and not finished.
+    boolean shutdown = false;           // true once shutdown or shutdownNow was called.
+    final ReentrantLock lock = new ReentrantLock();     // guards every field above.
+    final Condition notFull = lock.newCondition();      // signalled when a job leaves the queue.
+    final Condition terminated = lock.newCondition();   // signalled when the last worker finishes.
+
+    // Constructor that runs the jobs on the given executor. The executor must be able to run
+    // maxConcurrency tasks at the same time, otherwise jobs simply wait for the executor as well.
+    public JobScheduler(ExecutorService executor, int maxConcurrency, int maxQueued) {
+        if (maxConcurrency < 1) {           // Check at least one job can run.
+            throw new IllegalArgumentException("At least one job must be able to run at a time.");
+        }
+        if (maxQueued < 1) {                // Check at least one job can wait.
+            throw new IllegalArgumentException("At least one job must be able to wait in the queue.");
+        }
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+        this.maxQueued = maxQueued;
+    }
+
+    // this method makes a scheduler that runs every worker on its own virtual thread. Virtual threads
+    // need a Java 21 or newer runtime; on an older runtime this falls back to a pool of
+    // maxConcurrency platform threads.
+    public static JobScheduler virtualThreads(int maxConcurrency, int maxQueued) {
+        ExecutorService executor;
+        try {
+            executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {  // not there before Java 21.
+            executor = Executors.newFixedThreadPool(maxConcurrency);
+        }
+        return new JobScheduler(executor, maxConcurrency, maxQueued);
+    }
+
+    // this method makes a scheduler that runs the jobs on a pool of platform threads. At most
+    // threads jobs run at the same time.
+    public static JobScheduler platformThreads(int threads, int maxQueued) {
+        return new JobScheduler(Executors.newFixedThreadPool(threads), threads, maxQueued);
+    }
+
+    // this method submits the work of the job with the job's task name and priority. If the queue is
+    // full it waits until there is room. It returns the future of the job.
+    public CompletableFuture<Object> submit(Job job) throws InterruptedException {
+        return add(job.getTaskName(), job.getPriority(), workOf(job), Long.MAX_VALUE);
+    }
+
+    // this method submits work under the given task name and priority. If the queue is full it waits
+    // until there is room. It returns the future of the work.
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> submit(String taskName, int priority, Callable<T> work)
+            throws InterruptedException {
+        return (CompletableFuture<T>) add(taskName, priority, work, Long.MAX_VALUE);
+    }
+
+    // this method submits the work of the job, waiting at most the timeout for room in the queue. It
+    // returns the future of the job, or null if the queue was still full when the timeout ran out.
+    public CompletableFuture<Object> offer(Job job, long timeout, TimeUnit unit) throws InterruptedException {
+        return add(job.getTaskName(), job.getPriority(), workOf(job), unit.toNanos(timeout));
+    }
+
+    // returns the work of the job, or throws if the job has none.
+    static Callable<?> workOf(Job job) {
+        if (job.getWork() == null) {        // Check there is something to run.
+            throw new IllegalArgumentException("Job " + job.getTaskName() + " has no work to run.");
+        }
+        return job.getWork();
+    }
+
+    // this method puts a job in the queue, waiting up to nanos for room. If fewer than maxConcurrency
+    // workers are running it starts another one. It returns null if the timeout ran out.
+    CompletableFuture<Object> add(String taskName, int priority, Callable<?> work, long nanos)
+            throws InterruptedException {
+        Entry entry = new Entry(work);
+        boolean startWorker;
+        lock.lockInterruptibly();
+        try {
+            while (!shutdown && queue.size() >= maxQueued) {    // backpressure: wait for room.
+                if (nanos <= 0) {
+                    if (queue.metrics != null) {
+                        queue.metrics.recordRejectedEnqueue();  // offer gave up on a full queue.
+                    }
+                    return null;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            if (shutdown || executor.isShutdown()) {    // Check the scheduler still takes jobs.
+                throw new RejectedExecutionException("The scheduler has been shut down.");
+            }
+            entry.handle = queue.enqueue(taskName, priority);
+            int index = (int) entry.handle;             // where the queue stores the job.
+            if (index >= entries.length) {              // the queue grew, grow the entries with it.
+                entries = Arrays.copyOf(entries, queue.handleCapacity());
+            }
+            entries[index] = entry;
+            startWorker = running < maxConcurrency;
+            if (startWorker) {
+                running++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        entry.future.whenComplete((result, failure) -> {
+            if (entry.future.isCancelled()) {
+                withdraw(entry);            // a cancelled job does not need its place in the queue.
+            }
+        });
+        if (startWorker) {
+            startWorker(entry);
+        }
+        return entry.future;
+    }
+
+    // this method hands a new worker for the job to the executor. If the executor refuses it the
+    // worker is not counted as running any more and the job is taken back out of the queue, its
+    // future failing with the executor's exception, which is thrown on. If a running worker has
+    // already taken the job it runs as usual and nothing is thrown.
+    void startWorker(Entry entry) {
+        try {
+            executor.execute(this::work);
+        } catch (RejectedExecutionException e) {
+            lock.lock();
+            try {
+                running--;
+                if (running == 0) {
+                    terminated.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (withdraw(entry)) {
+                entry.future.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    // this method is the loop every worker runs: take the most urgent job, run it, repeat. The worker
+    // finishes once the queue is empty.
+    void work() {
+        while (true) {
+            Entry entry;
+            lock.lock();
+            try {
+                if (queue.isEmpty()) {
+                    running--;
+                    if (running == 0) {
+                        terminated.signalAll();
+                    }
+                    return;
+                }
+                int index = (int) queue.peekHandle();   // the most urgent job.
+                entry = entries[index];
+                entries[index] = null;
+                queue.dequeue();
+                notFull.signal();           // a producer waiting for room can go ahead.
+            } finally {
+                lock.unlock();
+            }
+            entry.run();
+        }
+    }
+
+    // this method takes a cancelled or rejected job out of the queue if it is still waiting there. It
+    // returns false if the job has left the queue already (a worker took it, or it was withdrawn).
+    boolean withdraw(Entry entry) {
+        lock.lock();
+        try {
+            int index = (int) entry.handle;
+            if (queue.contains(entry.handle) && entries[index] == entry) {
+                entries[index] = null;
+                queue.remove(entry.handle);
+                notFull.signal();
+                if (running == 0) {
+                    terminated.signalAll();     // awaitTermination may have waited for this job.
+                }
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // this method attaches metrics to the queue of waiting jobs (null detaches them). An offer that
+    // times out on a full queue counts as a rejected enqueue.
+    public void setMetrics(QueueMetrics metrics) {
+        lock.lock();
+        try {
+            queue.setMetrics(metrics);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // this method returns the number of jobs waiting in the queue.
+    public int queued() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // this method stops the scheduler from taking new jobs. The jobs already in the queue still run.
+    // Producers waiting for room are woken up and get a RejectedExecutionException.
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // this method stops the scheduler from taking new jobs and cancels every job that has not started.
+    // Jobs that are already running are left to finish, then the executor shuts down.
+    public void shutdownNow() {
+        Entry[] waiting;
+        lock.lock();
+        try {
+            shutdown = true;
+            waiting = entries;
+            entries = new Entry[entries.length];
+            queue.clear();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Entry entry : waiting) {
+            if (entry != null) {
+                entry.future.cancel(false);
+            }
+        }
+        executor.shutdown();                // no worker is started any more, the running ones finish.
+    }
+
+    // this method waits until every job has run (or the timeout runs out) and returns true if every
+    // job finished in time. After a shutdown the executor is shut down when it returns, either way:
+    // workers that are still running finish their jobs, but no new worker is started. Without a
+    // shutdown it only waits, and the scheduler keeps taking jobs.
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (running > 0 || !queue.isEmpty()) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = terminated.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            boolean stopping = shutdown;    // read while holding the lock, it may have been set while waiting.
+            lock.unlock();
+            if (stopping) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    // this method shuts the scheduler down and waits for every job to run. If the thread is
+    // interrupted while it waits it stops waiting and keeps the interrupt for the caller.
+    @Override
+    public void close() {
+        shutdown();
+        try {
+            awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();     // restore the flag the wait cleared.
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package pq;                         // all of the task management classes live in the pq package.
+
+import java.util.concurrent.atomic.AtomicLongArray;     // the counts, safe to add to from any thread.
+
+// LatencyHistogram class description:
+// Counts latencies (in nanoseconds) in log-linear buckets, the way HdrHistogram does: every power of
+// two is split into 32 equal sub-buckets, so a recorded value is off by at most 1/32 (about 3%) and
+// the whole range of a long fits in under 1900 buckets. Recording finds the bucket with a shift and
+// adds one to it, nothing is allocated. To keep threads from fighting over the same counters the
+// histogram has several stripes of buckets and each thread records into the stripe picked by its id;
+// reading adds the stripes back together.
+final class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 5;                   // 32 sub-buckets per power of two.
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = bucket(Long.MAX_VALUE) + 1;  // enough buckets for any long.
+
+    final AtomicLongArray[] stripes;    // the counts of every bucket, one array per stripe.
+    final int mask;                     // stripes.length - 1, the stripe count is a power of two.
+
+    // Constructor that makes one stripe per processor (rounded up to a power of two, at most 16).
+    LatencyHistogram() {
+        int count = Math.min(16, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+        stripes = new AtomicLongArray[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new AtomicLongArray(BUCKETS);
+        }
+        mask = count - 1;
+    }
+
+    // this method records one value. Negative values (a clock that went backwards) count as 0.
+    void record(long value) {
+        stripes[(int) Thread.currentThread().getId() & mask].getAndIncrement(bucket(Math.max(value, 0)));
+    }
+
+    // this method adds the stripes together into one array of counts.
+    long[] counts() {
+        long[] counts = new long[BUCKETS];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += stripe.get(i);
+            }
+        }
+        return counts;
+    }
+
+    // this method sets every count back to 0.
+    void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                stripe.set(i, 0);
+            }
+        }
+    }
+
+    // this method returns the value below which the given fraction (0 to 1) of the counted values
+    // fall, using the highest value of the bucket it lands in. It returns 0 if nothing was counted.
+    static long percentile(long[] counts, double fraction) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return highestValue(i);
+            }
+        }
+        return highestValue(counts.length - 1);
+    }
+
+    // this method returns the bucket of a value: values below 32 have a bucket each, above that every
+    // power of two gets 32 buckets.
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    // this method returns the largest value that lands in the bucket.
+    static long highestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        long sub = (bucket & (SUB_BUCKETS - 1)) + SUB_BUCKETS;
+        long next = (sub + 1) << shift;
+        return next <= 0 ? Long.MAX_VALUE : next - 1;   // the last bucket ends at Long.MAX_VALUE.
+    }
+}
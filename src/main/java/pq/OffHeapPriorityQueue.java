@@ -0,0 +1,590 @@
+package pq;                         // all of the task management classes live in the pq package.
+
+import java.lang.invoke.MethodHandle;               // frees a direct buffer right away (see free).
+import java.lang.invoke.MethodHandles;              // looks that method up.
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;                     // reads the Unsafe instance the method belongs to.
+import java.nio.ByteBuffer;                         // the off-heap memory.
+import java.nio.ByteOrder;                          // the records are stored in the native byte order.
+import java.nio.LongBuffer;                         // the records and name references, 8 bytes each.
+import java.nio.charset.StandardCharsets;           // task names are stored as UTF-8.
+import java.util.Arrays;                            // grows the (small, on-heap) arrays of chunks.
+import java.util.NoSuchElementException;            // thrown when dequeue is called on an empty queue.
+
+// OffHeapPriorityQueue class description:
+// A priority queue for hundreds of millions of tasks that keeps (almost) nothing on the Java heap, so
+// the garbage collector has nothing to scan or copy however large the queue gets.
+//  - The heap is a 4-ary heap of 8 byte records stored in direct ByteBuffers. A record packs the
+//    priority (high 32 bits) and the id of the task name (low 32 bits) into one long, so comparing
+//    two records is comparing two longs and ties are broken by name id.
+//  - Task names are interned: the first time a name is seen its UTF-8 bytes are copied into an
+//    off-heap arena and it gets an id, later tasks with the same name reuse the id. An off-heap
+//    hash table finds the id of a name, an off-heap table of references finds the bytes of an id.
+//  - Every id has a reference count (the number of tasks in the queue with that name). When the
+//    last task with a name is dequeued the name is taken out of the hash table and its id goes on a
+//    free list to be given to the next new name. The bytes it leaves in the arena are counted, and
+//    once they add up to a whole chunk and to more than the bytes still in use, the names in use are
+//    copied into fresh chunks and the old ones are freed. So a queue that keeps seeing new names
+//    only holds on to the names of the tasks it holds, not every name it has ever seen.
+// A task costs 8 bytes; a distinct name in the queue costs its bytes plus about 20 bytes of tables,
+// so a queue of many tasks over a smaller set of names stays around 8 to 16 bytes per task.
+// The memory is allocated in chunks that are never copied when the queue grows (the heap just gets
+// another chunk). clear() frees every chunk but the first of each kind, close() frees all of them;
+// neither waits for the garbage collector. The JVM caps direct memory at the maximum heap size unless
+// -XX:MaxDirectMemorySize says otherwise, so large queues need that flag.
+// enqueue and peek do not allocate for ASCII names; dequeue and peekTask have to return a String,
+// which is taken from a small cache of recently decoded names when possible.
+class OffHeapPriorityQueue implements TaskQueue, AutoCloseable {
+    static final int HEAP_CHUNK_SHIFT = 20;         // 2^20 records (8 MB) per heap chunk.
+    static final int REF_CHUNK_SHIFT = 16;          // 2^16 name references (512 KB) per chunk.
+    static final int ARENA_CHUNK_SHIFT = 22;        // 4 MB of name bytes per arena chunk.
+    static final int ARENA_CHUNK_BYTES = 1 << ARENA_CHUNK_SHIFT;
+    static final int MAX_NAME_BYTES = ARENA_CHUNK_BYTES;   // a name must fit in one arena chunk.
+    static final int INITIAL_TABLE_SLOTS = 1 << 12;         // the starting size of the hash table.
+    static final int MAX_TABLE_SLOTS = 1 << 28;             // the largest power of two of ints one buffer holds.
+    static final int MAX_NAMES = MAX_TABLE_SLOTS >>> 1;     // the table is kept at most half full.
+    static final int NAME_CACHE_SIZE = 1 << 12;             // decoded names kept on the heap.
+    static final long POSITION_MASK = (1L << 40) - 1;       // a name reference is length << 40 | position.
+    static final MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+    // A LongArray is an array of longs made of direct ByteBuffer chunks of 2^shift longs each. It
+    // grows one chunk at a time, so nothing is ever copied. IntArray below is the same for ints.
+    static final class LongArray {
+        final int shift;
+        final int mask;
+        ByteBuffer[] buffers = new ByteBuffer[0];   // the memory of each chunk (freed through these).
+        LongBuffer[] chunks = new LongBuffer[0];    // the same memory seen as longs.
+
+        LongArray(int shift) {
+            this.shift = shift;
+            this.mask = (1 << shift) - 1;
+        }
+
+        long get(int i) {
+            return chunks[i >>> shift].get(i & mask);
+        }
+
+        void set(int i, long value) {
+            chunks[i >>> shift].put(i & mask, value);
+        }
+
+        // makes sure index i can be used, adding a chunk if it is past the end.
+        void ensure(int i) {
+            int chunk = i >>> shift;
+            if (chunk >= chunks.length) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(8 << shift).order(ByteOrder.nativeOrder());
+                buffers = Arrays.copyOf(buffers, chunk + 1);
+                chunks = Arrays.copyOf(chunks, chunk + 1);
+                buffers[chunk] = buffer;
+                chunks[chunk] = buffer.asLongBuffer();
+            }
+        }
+
+        // frees every chunk past the first keep chunks.
+        void release(int keep) {
+            for (int c = keep; c < buffers.length; c++) {
+                free(buffers[c]);
+            }
+            buffers = Arrays.copyOf(buffers, Math.min(keep, buffers.length));
+            chunks = Arrays.copyOf(chunks, buffers.length);
+        }
+
+        long bytes() {
+            return (long) buffers.length << (shift + 3);
+        }
+    }
+
+    static final class IntArray {
+        final int shift;
+        final int mask;
+        ByteBuffer[] buffers = new ByteBuffer[0];
+
+        IntArray(int shift) {
+            this.shift = shift;
+            this.mask = (1 << shift) - 1;
+        }
+
+        int get(int i) {
+            return buffers[i >>> shift].getInt((i & mask) << 2);
+        }
+
+        void set(int i, int value) {
+            buffers[i >>> shift].putInt((i & mask) << 2, value);
+        }
+
+        // makes sure index i can be used, adding a chunk if it is past the end.
+        void ensure(int i) {
+            int chunk = i >>> shift;
+            if (chunk >= buffers.length) {
+                buffers = Arrays.copyOf(buffers, chunk + 1);
+                buffers[chunk] = ByteBuffer.allocateDirect(4 << shift).order(ByteOrder.nativeOrder());
+            }
+        }
+
+        // frees every chunk past the first keep chunks.
+        void release(int keep) {
+            for (int c = keep; c < buffers.length; c++) {
+                free(buffers[c]);
+            }
+            buffers = Arrays.copyOf(buffers, Math.min(keep, buffers.length));
+        }
+
+        long bytes() {
+            return (long) buffers.length << (shift + 2);
+        }
+    }
+
+    final LongArray heap = new LongArray(HEAP_CHUNK_SHIFT);     // the records in heap order.
+    final LongArray nameRefs = new LongArray(REF_CHUNK_SHIFT);  // for every name id: length << 40 | position,
+                                                                // or the next free id if the id is free.
+    final IntArray counts = new IntArray(REF_CHUNK_SHIFT);      // for every name id: the tasks with that name.
+    ByteBuffer[] arena = new ByteBuffer[0];         // the name bytes; position p is at arena[p >>> 22].
+    int arenaEnd;                   // the first free byte in the last arena chunk.
+    long liveBytes = 0;             // the arena bytes of the names in use.
+    long deadBytes = 0;             // the arena bytes of names that were freed since the last compaction.
+    ByteBuffer table;               // the hash table: slot s holds a name id + 1, or 0 if it is empty.
+    int tableSlots;                 // the number of slots in table (a power of two).
+    int names = 0;                  // the number of distinct names in use (the ids in the table).
+    int nextId = 0;                 // every id below this one has been given out at least once.
+    int freeId = -1;                // the first id of the free list (linked through nameRefs), or -1.
+    int size = 0;                   // the number of tasks in the queue.
+    byte[] scratch = new byte[64];  // the bytes of the name being interned or decoded.
+    final String[] nameCache = new String[NAME_CACHE_SIZE];    // recently decoded names, by id & mask
+    final int[] cachedIds = new int[NAME_CACHE_SIZE];          // and the id each one belongs to.
+    boolean closed = false;         // true once close was called.
+
+    // Constructor for an empty queue. It allocates the first chunk of every kind straight away.
+    public OffHeapPriorityQueue() {
+        table = allocateTable(INITIAL_TABLE_SLOTS);
+        tableSlots = INITIAL_TABLE_SLOTS;
+        heap.ensure(0);
+        nameRefs.ensure(0);
+        counts.ensure(0);
+        arena = new ByteBuffer[] {ByteBuffer.allocateDirect(ARENA_CHUNK_BYTES)};
+        Arrays.fill(cachedIds, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // this method returns the number of bytes of off-heap memory the queue holds right now.
+    public long offHeapBytes() {
+        return heap.bytes() + nameRefs.bytes() + counts.bytes() + (long) arena.length * ARENA_CHUNK_BYTES
+                + 4L * tableSlots;
+    }
+
+    // this method removes every task and forgets every name. The memory past the first chunk of the
+    // heap, the name tables and the arena is freed right away.
+    public void clear() {
+        checkOpen();
+        size = 0;
+        names = 0;
+        nextId = 0;
+        freeId = -1;
+        heap.release(1);
+        nameRefs.release(1);
+        counts.release(1);
+        for (int c = 1; c < arena.length; c++) {
+            free(arena[c]);
+        }
+        arena = Arrays.copyOf(arena, 1);
+        arenaEnd = 0;
+        liveBytes = 0;
+        deadBytes = 0;
+        if (tableSlots > INITIAL_TABLE_SLOTS) {
+            free(table);
+            table = allocateTable(INITIAL_TABLE_SLOTS);
+            tableSlots = INITIAL_TABLE_SLOTS;
+        } else {
+            for (int s = 0; s < tableSlots; s++) {
+                table.putInt(s << 2, 0);
+            }
+        }
+        Arrays.fill(nameCache, null);
+        Arrays.fill(cachedIds, -1);
+    }
+
+    // this method frees all of the memory of the queue. The queue cannot be used afterwards.
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        size = 0;
+        heap.release(0);
+        nameRefs.release(0);
+        counts.release(0);
+        for (ByteBuffer chunk : arena) {
+            free(chunk);
+        }
+        arena = new ByteBuffer[0];
+        free(table);
+        table = null;
+        tableSlots = 0;
+        Arrays.fill(nameCache, null);
+    }
+
+    // this method adds a task. The queue keeps nothing per task but its record, so there is no handle
+    // for one task: it returns the id of the task's name, which every task with the same name in the
+    // queue shares. Once the last of them is dequeued the id may be given to another name.
+    public long enqueue(String taskName, int priority) {
+        checkOpen();
+        if (size == Integer.MAX_VALUE) {    // the heap is indexed by int.
+            throw new OutOfMemoryError("Queue cannot hold more than " + Integer.MAX_VALUE + " tasks.");
+        }
+        int id = intern(taskName);
+        heap.ensure(size);
+        upheap(size, ((long) priority << 32) | id);
+        size++;
+        return id;
+    }
+
+    // this method removes and returns the most urgent task.
+    public String dequeue() {
+        if (size == 0) {                    // Check if the queue is empty.
+            throw new NoSuchElementException("Cannot dequeue from an empty queue.");
+        }
+        long top = heap.get(0);
+        size--;
+        if (size > 0) {
+            downheap(0, heap.get(size));    // move the last record into the hole at the front.
+        }
+        int id = (int) top;
+        String task = name(id);
+        int count = counts.get(id) - 1;
+        counts.set(id, count);
+        if (count == 0) {                   // the last task with this name: forget the name.
+            release(id);
+        }
+        return task;
+    }
+
+    // this method returns the most urgent task without removing it, or a message if the queue is empty.
+    public String peekTask() {
+        if (size == 0) {
+            return "TASK LIST EMPTY\n\nADD A TASK TO THE QUEUE";
+        }
+        return name((int) heap.get(0));
+    }
+
+    // this method returns the priority of the most urgent task without removing it. If the queue is
+    // empty it prints a message and returns -1, the same as PriorityQueue.
+    public int peekPriority() {
+        if (size == 0) {                    // Check if the queue is empty.
+            System.out.println("TASK LIST EMPTY\n\nADD A TASK TO THE QUEUE");
+            return -1;
+        }
+        return (int) (heap.get(0) >> 32);
+    }
+
+    // this method moves the record up from the hole at index k until its parent is not larger.
+    void upheap(int k, long record) {
+        while (k > 0) {
+            int parent = (k - 1) >>> 2;
+            long above = heap.get(parent);
+            if (above <= record) {
+                break;
+            }
+            heap.set(k, above);             // move the parent down into the hole.
+            k = parent;
+        }
+        heap.set(k, record);
+    }
+
+    // this method moves the record down from the hole at index k until no child is smaller.
+    void downheap(int k, long record) {
+        int lastParent = (size - 2) >>> 2;  // indexes past lastParent have no children.
+        while (size > 1 && k <= lastParent) {
+            int j = (k << 2) + 1;           // the first of up to four children, next to each other.
+            int stop = Math.min(j + 4, size);
+            long smallest = heap.get(j);
+            for (int c = j + 1; c < stop; c++) {
+                long child = heap.get(c);
+                if (child < smallest) {
+                    j = c;
+                    smallest = child;
+                }
+            }
+            if (record <= smallest) {
+                break;
+            }
+            heap.set(k, smallest);          // move the smallest child up into the hole.
+            k = j;
+        }
+        heap.set(k, record);
+    }
+
+    // this method returns the id of the name, adding it to the arena and the hash table if it is new,
+    // and counts one more task with that name.
+    int intern(String taskName) {
+        int length = encode(taskName);
+        int mask = tableSlots - 1;
+        for (int slot = hash(length) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table.getInt(slot << 2);
+            if (entry == 0) {               // not seen before: store it in this slot.
+                int id = addName(length);
+                table.putInt(slot << 2, id + 1);
+                if (names > tableSlots >>> 1) {     // keep the table at most half full.
+                    growTable();
+                }
+                return id;
+            }
+            if (sameName(entry - 1, length)) {
+                int id = entry - 1;
+                counts.set(id, counts.get(id) + 1);
+                return id;
+            }
+        }
+    }
+
+    // this method copies the name in scratch into the arena and returns its new id, whose count is 1.
+    // The id comes from the free list if there is one.
+    int addName(int length) {
+        if (names == MAX_NAMES) {           // the hash table cannot grow any further.
+            throw new OutOfMemoryError("Queue cannot hold more than " + MAX_NAMES + " distinct task names.");
+        }
+        if (arenaEnd + length > ARENA_CHUNK_BYTES) {    // does not fit: start a new arena chunk.
+            arena = Arrays.copyOf(arena, arena.length + 1);
+            arena[arena.length - 1] = ByteBuffer.allocateDirect(ARENA_CHUNK_BYTES);
+            arenaEnd = 0;
+        }
+        long position = ((long) (arena.length - 1) << ARENA_CHUNK_SHIFT) + arenaEnd;
+        arena[arena.length - 1].put(arenaEnd, scratch, 0, length);
+        arenaEnd += length;
+        liveBytes += length;
+        int id = freeId;
+        if (id >= 0) {
+            freeId = (int) nameRefs.get(id);    // the next free id.
+        } else {
+            id = nextId++;
+            nameRefs.ensure(id);
+            counts.ensure(id);
+        }
+        names++;
+        nameRefs.set(id, ((long) length << 40) | position);
+        counts.set(id, 1);
+        return id;
+    }
+
+    // this method forgets the name with the given id once no task has it any more: it leaves the hash
+    // table, its id goes on the free list and its bytes count as dead until the arena is compacted.
+    void release(int id) {
+        int mask = tableSlots - 1;
+        int hole = hashOf(id) & mask;
+        while (table.getInt(hole << 2) != id + 1) {
+            hole = (hole + 1) & mask;
+        }
+        // take the id out by moving later entries of the same run back into the hole, so every
+        // entry stays reachable from its own slot without leaving tombstones in the table.
+        for (int slot = (hole + 1) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table.getInt(slot << 2);
+            if (entry == 0) {
+                break;
+            }
+            int home = hashOf(entry - 1) & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {     // the hole is on its way home.
+                table.putInt(hole << 2, entry);
+                hole = slot;
+            }
+        }
+        table.putInt(hole << 2, 0);
+        int length = (int) (nameRefs.get(id) >>> 40);
+        liveBytes -= length;
+        deadBytes += length;
+        names--;
+        nameRefs.set(id, freeId);
+        freeId = id;
+        int cached = id & (NAME_CACHE_SIZE - 1);
+        if (cachedIds[cached] == id) {      // the id may soon belong to another name.
+            cachedIds[cached] = -1;
+            nameCache[cached] = null;
+        }
+        if (deadBytes >= ARENA_CHUNK_BYTES && deadBytes > liveBytes) {
+            compactArena();
+        }
+    }
+
+    // this method copies the names in use into new arena chunks, one after the other, and frees the
+    // old chunks. The ids stay the same, only their positions in nameRefs change. It runs once the
+    // dead bytes outweigh the live ones, so it costs O(1) per byte freed.
+    void compactArena() {
+        ByteBuffer[] old = arena;
+        arena = new ByteBuffer[] {ByteBuffer.allocateDirect(ARENA_CHUNK_BYTES)};
+        arenaEnd = 0;
+        for (int id = 0; id < nextId; id++) {
+            if (counts.get(id) == 0) {
+                continue;                   // a free id: its nameRefs entry is a free list link.
+            }
+            long ref = nameRefs.get(id);
+            int length = (int) (ref >>> 40);
+            long position = ref & POSITION_MASK;
+            if (arenaEnd + length > ARENA_CHUNK_BYTES) {
+                arena = Arrays.copyOf(arena, arena.length + 1);
+                arena[arena.length - 1] = ByteBuffer.allocateDirect(ARENA_CHUNK_BYTES);
+                arenaEnd = 0;
+            }
+            arena[arena.length - 1].put(arenaEnd, old[(int) (position >>> ARENA_CHUNK_SHIFT)],
+                    (int) (position & (ARENA_CHUNK_BYTES - 1)), length);
+            nameRefs.set(id, ((long) length << 40) | ((long) (arena.length - 1) << ARENA_CHUNK_SHIFT) + arenaEnd);
+            arenaEnd += length;
+        }
+        for (ByteBuffer chunk : old) {
+            free(chunk);
+        }
+        deadBytes = 0;
+    }
+
+    // this method returns true if the name with the given id is the name in scratch.
+    boolean sameName(int id, int length) {
+        long ref = nameRefs.get(id);
+        if ((int) (ref >>> 40) != length) {
+            return false;
+        }
+        long position = ref & POSITION_MASK;
+        ByteBuffer chunk = arena[(int) (position >>> ARENA_CHUNK_SHIFT)];
+        int offset = (int) (position & (ARENA_CHUNK_BYTES - 1));
+        for (int i = 0; i < length; i++) {
+            if (chunk.get(offset + i) != scratch[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // this method returns the name with the given id as a String. Recently used names come from the
+    // cache, the others are decoded from the arena.
+    String name(int id) {
+        int slot = id & (NAME_CACHE_SIZE - 1);
+        if (cachedIds[slot] == id) {
+            return nameCache[slot];
+        }
+        long ref = nameRefs.get(id);
+        int length = (int) (ref >>> 40);
+        long position = ref & POSITION_MASK;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        arena[(int) (position >>> ARENA_CHUNK_SHIFT)].get((int) (position & (ARENA_CHUNK_BYTES - 1)), scratch, 0, length);
+        String name = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        nameCache[slot] = name;
+        cachedIds[slot] = id;
+        return name;
+    }
+
+    // this method writes the UTF-8 bytes of the name into scratch and returns how many there are.
+    // ASCII names are copied char by char so no byte array is created for them.
+    int encode(String taskName) {
+        int length = taskName.length();
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            char c = taskName.charAt(i);
+            if (c >= 0x80) {                // not plain ASCII: let the encoder do all of it.
+                byte[] bytes = taskName.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > MAX_NAME_BYTES) {
+                    throw new IllegalArgumentException("Task names must be at most " + MAX_NAME_BYTES + " bytes.");
+                }
+                if (scratch.length < bytes.length) {
+                    scratch = new byte[bytes.length];
+                }
+                System.arraycopy(bytes, 0, scratch, 0, bytes.length);
+                return bytes.length;
+            }
+            scratch[i] = (byte) c;
+        }
+        if (length > MAX_NAME_BYTES) {      // Check the name fits in an arena chunk.
+            throw new IllegalArgumentException("Task names must be at most " + MAX_NAME_BYTES + " bytes.");
+        }
+        return length;
+    }
+
+    // this method hashes the first length bytes of scratch (FNV-1a, then mixed so the low bits the
+    // table uses depend on every byte).
+    int hash(int length) {
+        int h = 0x811C9DC5;
+        for (int i = 0; i < length; i++) {
+            h = (h ^ scratch[i]) * 0x01000193;
+        }
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // this method doubles the hash table and puts every name id in use back in. The hashes are worked
+    // out again from the arena, so nothing but the ids has to be stored in the table.
+    void growTable() {
+        int newSlots = tableSlots << 1;
+        ByteBuffer newTable = allocateTable(newSlots);
+        int mask = newSlots - 1;
+        for (int id = 0; id < nextId; id++) {
+            if (counts.get(id) == 0) {
+                continue;                   // a free id is not in the table.
+            }
+            int slot = hashOf(id) & mask;
+            while (newTable.getInt(slot << 2) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            newTable.putInt(slot << 2, id + 1);
+        }
+        free(table);
+        table = newTable;
+        tableSlots = newSlots;
+    }
+
+    // this method copies the bytes of the name with the given id into scratch and returns their hash.
+    // It overwrites scratch, so it must not be called while scratch holds a name being interned.
+    int hashOf(int id) {
+        long ref = nameRefs.get(id);
+        int length = (int) (ref >>> 40);
+        long position = ref & POSITION_MASK;
+        if (scratch.length < length) {
+            scratch = new byte[length];
+        }
+        arena[(int) (position >>> ARENA_CHUNK_SHIFT)].get((int) (position & (ARENA_CHUNK_BYTES - 1)), scratch, 0, length);
+        return hash(length);
+    }
+
+    void checkOpen() {
+        if (closed) {                       // Check the memory has not been freed.
+            throw new IllegalStateException("The queue has been closed.");
+        }
+    }
+
+    static ByteBuffer allocateTable(int slots) {
+        return ByteBuffer.allocateDirect(slots << 2).order(ByteOrder.nativeOrder());
+    }
+
+    // this method gives the memory of a direct buffer back right away instead of when the garbage
+    // collector gets around to the buffer. It uses Unsafe.invokeCleaner, which every JDK since 9 has;
+    // if it cannot be found the memory is freed by the garbage collector as usual.
+    static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null || buffer == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(buffer);
+        } catch (Throwable t) {
+            // leave it to the garbage collector.
+        }
+    }
+
+    // looks up Unsafe.invokeCleaner bound to the Unsafe instance, or returns null if there is none.
+    static MethodHandle invokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package pq;                         // all of the task management classes live in the pq package.
+
+import java.util.Arrays;                    // grows the child array with the node pool.
+import java.util.NoSuchElementException;    // thrown when dequeue is called on an empty queue.
+
+// PairingHeap class description:
+// A task queue that can be merged with another one in O(1). Each task is a node of a tree in which
+// every node is at least as urgent as its children; a node keeps its first child and its next
+// sibling, so the children form a linked list. (Lower number = higher priority, as everywhere.)
+//  - enqueue makes the task a one-node tree and links it with the root: O(1).
+//  - meld links the two roots the same way: O(1), however many tasks the two queues hold.
+//  - dequeue removes the root and merges its children in pairs, left to right, then merges the
+//    pairs right to left: O(log n) amortized.
+//  - split moves every task a filter accepts into a new queue in O(n), with no sorting.
+// The nodes are indexes into an Arena (a TaskNodes pool plus a child array), so the heap creates no
+// object per task. Queues that are going to be melded, like the shards of a team queue, should share
+// one arena: make the first with new PairingHeap() and the others with new PairingHeap(first). Then
+// melding only links two roots. Melding queues from different arenas copies the other queue's nodes
+// over (O(m) for m tasks, still without any sifting). Queues that share an arena must be used from
+// the same thread.
+class PairingHeap implements TaskQueue {
+    // An Arena is the pool of nodes a group of queues takes its nodes from. The task name, priority
+    // and next sibling of a node are in nodes, the first child in child.
+    static final class Arena {
+        final TaskNodes nodes = new TaskNodes();
+        int[] child = new int[PriorityQueue.CAPACITY];
+
+        // takes a node from the pool for a task with no children and no siblings yet.
+        int add(String taskName, int priority) {
+            int node = nodes.add(taskName, priority);
+            if (node >= child.length) {     // the pool grew, grow the child array with it.
+                child = Arrays.copyOf(child, nodes.next.length);
+            }
+            child[node] = TaskNodes.NONE;
+            return node;
+        }
+    }
+
+    // A TaskFilter picks the tasks split moves out of the queue.
+    interface TaskFilter {
+        boolean test(String taskName, int priority);
+    }
+
+    final Arena arena;              // the pool the nodes of this queue come from.
+    int root = TaskNodes.NONE;      // the most urgent task, or NONE if the queue is empty.
+    int size = 0;                   // the number of tasks in the queue.
+
+    // Constructor for an empty queue with an arena of its own.
+    public PairingHeap() {
+        this.arena = new Arena();
+    }
+
+    // Constructor for an empty queue that shares the arena of another queue, so the two can be
+    // melded in O(1).
+    public PairingHeap(PairingHeap sameArena) {
+        this.arena = sameArena.arena;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // this method removes every task and gives its node back to the arena. It is O(n) because other
+    // queues may be using the same arena.
+    public void clear() {
+        int node = flatten(root);
+        while (node != TaskNodes.NONE) {
+            int following = arena.nodes.next[node];
+            arena.nodes.release(node);
+            node = following;
+        }
+        root = TaskNodes.NONE;
+        size = 0;
+    }
+
+    // this method adds a task and returns its node, which stays the same while the task is in the queue.
+    public long enqueue(String taskName, int priority) {
+        int node = arena.add(taskName, priority);
+        root = link(root, node);
+        size++;
+        return node;
+    }
+
+    // this method removes and returns the most urgent task.
+    public String dequeue() {
+        if (size == 0) {                    // Check if the queue is empty.
+            throw new NoSuchElementException("Cannot dequeue from an empty queue.");
+        }
+        int oldRoot = root;
+        String task = arena.nodes.tasks[oldRoot];
+        root = mergePairs(arena.child[oldRoot]);
+        arena.nodes.release(oldRoot);
+        size--;
+        return task;
+    }
+
+    // this method returns the most urgent task without removing it, or a message if the queue is empty.
+    public String peekTask() {
+        if (size == 0) {
+            return "TASK LIST EMPTY\n\nADD A TASK TO THE QUEUE";
+        }
+        return arena.nodes.tasks[root];
+    }
+
+    // this method returns the priority of the most urgent task without removing it. If the queue is
+    // empty it prints a message and returns -1, the same as PriorityQueue.
+    public int peekPriority() {
+        if (size == 0) {                    // Check if the queue is empty.
+            System.out.println("TASK LIST EMPTY\n\nADD A TASK TO THE QUEUE");
+            return -1;
+        }
+        return arena.nodes.priorities[root];
+    }
+
+    // this method moves every task of the other queue into this one, leaving the other queue empty.
+    // If the queues share an arena this is O(1), otherwise the other queue's tasks are copied into
+    // this queue's arena in O(m).
+    public void meld(PairingHeap other) {
+        if (other == this) {                // Check the queue is not melded with itself.
+            throw new IllegalArgumentException("A queue cannot be melded with itself.");
+        }
+        if (other.arena == arena) {
+            root = link(root, other.root);
+        } else {
+            TaskNodes from = other.arena.nodes;
+            int copies = TaskNodes.NONE;    // the copied nodes, as a list linked through next.
+            int node = other.flatten(other.root);
+            while (node != TaskNodes.NONE) {
+                int following = from.next[node];
+                int copy = arena.add(from.tasks[node], from.priorities[node]);
+                arena.nodes.next[copy] = copies;
+                copies = copy;
+                from.release(node);
+                node = following;
+            }
+            root = link(root, mergePairs(copies));
+        }
+        size += other.size;
+        other.root = TaskNodes.NONE;
+        other.size = 0;
+    }
+
+    // this method moves every task the filter accepts into a new queue (in the same arena) and returns
+    // it. The tasks that stay and the tasks that move are each rebuilt by pairing, so it is O(n).
+    public PairingHeap split(TaskFilter filter) {
+        TaskNodes nodes = arena.nodes;
+        PairingHeap moved = new PairingHeap(this);
+        int stay = TaskNodes.NONE;          // the nodes that stay and the nodes that move, as two
+        int move = TaskNodes.NONE;          // lists linked through next.
+        int node = flatten(root);
+        while (node != TaskNodes.NONE) {
+            int following = nodes.next[node];
+            if (filter.test(nodes.tasks[node], nodes.priorities[node])) {
+                nodes.next[node] = move;
+                move = node;
+                moved.size++;
+            } else {
+                nodes.next[node] = stay;
+                stay = node;
+            }
+            node = following;
+        }
+        root = mergePairs(stay);
+        moved.root = mergePairs(move);
+        size -= moved.size;
+        return moved;
+    }
+
+    // this method makes the less urgent of two roots the first child of the other and returns the
+    // new root. Either may be NONE. The roots must have no siblings.
+    int link(int a, int b) {
+        if (a == TaskNodes.NONE) {
+            return b;
+        }
+        if (b == TaskNodes.NONE) {
+            return a;
+        }
+        int[] priorities = arena.nodes.priorities;
+        if (priorities[b] < priorities[a]) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        arena.nodes.next[b] = arena.child[a];   // b goes in front of a's children.
+        arena.child[a] = b;
+        return a;
+    }
+
+    // this method merges a list of trees (linked through next) into one tree and returns its root.
+    // The first pass links the trees in pairs from left to right, the second pass links the pairs
+    // from right to left into one tree; doing it in two passes is what keeps dequeue O(log n)
+    // amortized. The pairs are collected in reverse order so the second pass can walk them forward.
+    int mergePairs(int first) {
+        int[] next = arena.nodes.next;
+        int pairs = TaskNodes.NONE;         // the linked pairs, most recent first.
+        while (first != TaskNodes.NONE) {
+            int a = first;
+            int b = next[a];
+            if (b == TaskNodes.NONE) {      // an odd tree out: it is a pair of its own.
+                next[a] = pairs;
+                pairs = a;
+                break;
+            }
+            first = next[b];
+            next[a] = TaskNodes.NONE;
+            next[b] = TaskNodes.NONE;
+            int pair = link(a, b);
+            next[pair] = pairs;
+            pairs = pair;
+        }
+        int merged = TaskNodes.NONE;
+        while (pairs != TaskNodes.NONE) {
+            int pair = pairs;
+            pairs = next[pair];
+            next[pair] = TaskNodes.NONE;
+            merged = link(merged, pair);
+        }
+        return merged;
+    }
+
+    // this method takes the tree apart into a plain list of its nodes (linked through next, with no
+    // children left) and returns the first node. The children of a node are spliced into the list
+    // right after it, so every node is visited a constant number of times: O(n).
+    int flatten(int tree) {
+        int[] next = arena.nodes.next;
+        int[] child = arena.child;
+        for (int node = tree; node != TaskNodes.NONE; node = next[node]) {
+            int first = child[node];
+            if (first != TaskNodes.NONE) {
+                int last = first;
+                while (next[last] != TaskNodes.NONE) {
+                    last = next[last];
+                }
+                next[last] = next[node];    // the children go between node and the rest of the list.
+                next[node] = first;
+                child[node] = TaskNodes.NONE;
+            }
+        }
+        return tree;
+    }
+}
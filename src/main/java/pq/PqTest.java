@@ -0,0 +1,193 @@
+/**
+ * Author: Lucas Carpenter
+ * Program #: 4 Task Management App
+ * C243 - Data Structures
+ * Date: 4/16/2025
+ * Description: This Java program functions as a simple task management app that uses a priority queue to 
+ * organize tasks based on their priority, where lower numbers mean higher priority. When tasks are added, 
+ * the upheap method ensures the queue stays sorted, and when tasks are removed, the downheap method 
+ * maintains the correct order. The app allows users to add new tasks, view the highest-priority task, 
+ * and remove tasks once completed. It also handles errors like trying to peek or remove from an empty queue. 
+ * A test class is included to demonstrate how tasks are added and removed in action.
+ */
+
+package pq;                         // all of the task management classes live in the pq package.
+
+// The scanner class is going to allow the user to interact with the program in the terminal.
+import java.util.Scanner;           // Import the scanner class.
+import java.io.FileInputStream;     // batch mode reads its commands from a file.
+import java.io.IOException;         // thrown if batch mode cannot read its commands.
+import java.io.InputStream;         // batch mode reads its commands from a file or from stdin.
+import javax.management.JMException;        // thrown if the metrics cannot be shown over JMX.
+
+// this class is used to test the PriorityQueue class. It is a simple test class that allows the user to 
+// interact with the program in the terminal.it has a menu that allows the user to add tasks, remove tasks, 
+// peek at the most urgent task, peek at the priority of the most urgent task, clear the queue, get the size 
+// of the queue, and check if the queue is empty.this class is used to test the PriorityQueue class. It is a 
+// simple test class that allows the user to interact with the program in the terminalit is important because 
+// it allows the user to see how the program works and to test the functionality of the PriorityQueue class.
+class pqTest {                      // not public: a public class would have to live in pqTest.java.
+    static PriorityQueue pq = new PriorityQueue();      // Create a new priority queue object.
+    static Scanner in = new Scanner(System.in);         // Create a new scanner object to read user input.
+
+    // Run with no arguments for the menu. Run with --batch to process commands without the menu,
+    // from the file named after --batch or from stdin if there is none (or it is -). See 
+    // BatchCommandProcessor for the commands.
+    // Run with -Dpq.metrics=true to count what the queue does and show the numbers over JMX (in 
+    // JConsole under pq/QueueMetrics/pqTest).
+    public static void main(String[] args) throws IOException, JMException {
+        if (Boolean.getBoolean("pq.metrics")) {                 // metrics are off unless asked for.
+            QueueMetrics metrics = new QueueMetrics();
+            metrics.register("pqTest");
+            pq.setMetrics(metrics);
+        }
+        if (args.length > 0 && args[0].equals("--batch")) {      // headless mode, no menu.
+            runBatch(args.length > 1 ? args[1] : "-");
+            return;
+        }
+        int choice;                               // create a variable(int) to store the user's choice.
+        do {                                      // Repeat until the user chooses to exit the program(when user inputs '0').       
+            choice = printMenu();                 // Print the menu and get the user's choice.
+            runChoice(choice);                    // Run the user's choice in the method runChoice.
+        } while (choice != 0);                          
+    }
+
+    // This method runs the commands in the file (or stdin for -) against the queue and prints the
+    // results. It is used instead of the menu when the program is started with --batch.
+    static void runBatch(String fileName) throws IOException {
+        InputStream input = fileName.equals("-") ? System.in : new FileInputStream(fileName);
+        try {
+            new BatchCommandProcessor(pq, input, System.out).run();
+        } finally {
+            input.close();
+        }
+    }
+
+    // This method runs the user's choice based on the menu options. It serves as a
+    // more readable alternative to a switch statement.
+    // It checks the user's choice and calls the appropriate method to perform the
+    // action.
+
+    static void runChoice(int choice) {
+        if (choice == 0)                        // If the user chooses to exit the program, 
+                                                // print a goodbye message and return.
+        
+            // because this option only prints a message to the terminal no stand alone method is needed. 
+            // This reduces redundancy. This is not the only option that does not call a method to 
+            // perform an action.
+            System.out.println("Goodbye!");   // tell user goodbye. The menu will no longer be printed when the user enters 0
+        if (choice == 1)                        // If the user chooses to enqueue a task, call the enqueueTask method.
+            enqueueTask();                      // Enqueue a task.
+        if (choice == 2)                        // If the user chooses to dequeue a task, call the dequeueTask method.
+            dequeueTask();                      // Dequeue a task.
+        if (choice == 3)                        // If the user chooses to peek at the most urgent task, 
+                                                // call the peekTask method. Peek at the most urgent task.
+            System.out.println("most urgent task: " + pq.peekTask());                                       
+        if (choice == 4)                        // If the user chooses to peek at the priority of the most urgent task, 
+                                                // call the peekPriority method. Peek at the priority of the most urgent task.
+            System.out.println("priority of most urgent task: " + pq.peekPriority());
+        if (choice == 5)                        // If the user chooses to clear the queue, call the clearQueue method.
+            clearQueue();                       // Clear the queue.
+        if (choice == 6)                        // If the user chooses to get the size of the queue, 
+                                                // call the printSize method.
+            printSize();                        // Get queue size.
+        if (choice == 7)                        // If the user chooses to check if the queue is empty, 
+                                                // call the printIsEmpty method.
+            printIsEmpty();                     // Check if queue is empty.
+    }
+
+    // this method prints the menu and returns the user's choice. Its purpose is to help me make a more readble program.
+    // instead of using a switch or a series of if statements to run the user's choice.
+    // This method is called in the main method to print the menu and get the user's choice.
+    static int printMenu() {                                      // Here are the options that the menu for 
+                                                                  // the user to interact with in the terminal.
+        System.out.println("\nMenu:");                          // Print the menu.
+        System.out.println("0) EXIT the program.");             // Exit the program.    
+        System.out.println("1) Enqueue a task.");               // Enqueue a task.
+        System.out.println("2) Dequeue a task.");               // Dequeue a task.
+        System.out.println("3) Peek at the most urgent task."); // Peek at the most urgent task.
+                                                                  // Peek at the priority of the most urgent task.
+        System.out.println("4) Peek at the priority of the most urgent task."); 
+        System.out.println("5) Clear the queue.");              // Clear the queue.
+        System.out.println("6) Get queue size.");               // Get queue size.
+        System.out.println("7) Check if queue is empty.");        // Check if queue is empty.
+        System.out.print("Your choice: ");                        // Prompt the user for their choice.
+        return in.nextInt();                                      // Get the user's choice from the menu.
+    }
+
+    // this method is called when the user chooses to enqueue a task.
+    // It prompts the user for the task and its priority, then adds the task to the priority queue.
+    // If the user enters a negative priority, the method will print an error message and return to the menu.
+    // This method is called in the runChoice method when the user chooses to enqueue a task.
+    // this user choice relies on the enqueue method to add the task to the queue. and the Scanner class to read user input.
+    static void enqueueTask() {
+        System.out.print("Enter task: ");                 // Prompt the user for the task.     
+        String task = in.next();                            // Get the task from the user.
+        System.out.print("Enter priority: ");             // Prompt the user for the priority.
+        in.nextLine();                                      // Consume the newline character this 
+                                                            // is necessary to avoid skipping the next input.
+        int p = in.nextInt();                               // Get the priority from the user.    
+        if (p < 0) {                                        // Check if the priority is negative.
+            if (pq.metrics != null) {
+                pq.metrics.recordRejectedEnqueue();         // count the rejected task.
+            }
+            System.out.println("Priority must be a positive integer.\n\nReturning to menu.");
+            return;                                         // If the priority is negative, print an error 
+                                                            // message and return to the menu.
+        }
+        pq.enqueue(task, p);                                // Add the task to the priority queue with the 
+                                                            // information provided by the user.
+    }
+
+    // This method is called when the user chooses to dequeue a task.
+    // It removes the task with the highest priority from the queue and prints it to the console.
+    // the highest priority is the lowest numerical value priority.
+    // This method is called in the runChoice method when the user chooses to dequeue a task.
+    // this user choice relies on the dequeue method to remove the task from the queue. This method 
+    // seems rudundent but it has logic that is necessary to avoid errors. checking if the queue is 
+    // empty before calling the dequeue method. this method relies on the isEmpty method to check if the queue is empty.
+    static void dequeueTask() {
+        if (!pq.isEmpty())                                          // Check if the queue is empty before calling dequeue.
+            System.out.println("Removed: " + pq.dequeue());         // if the queue is not empty then dequeue the task with 
+                                                                    // the highest priority and print it to the console.
+        else
+            System.out.println("Cannot dequeue from an empty queue.\n\nReturning to menu.");  // If the queue is empty, 
+                                                                                                // print an error message and 
+                                                                                                // return to the menu.
+    }
+
+    // This method is called when the user chooses to clear the queue.
+    // It removes all tasks from the queue and prints a message to the console.
+    // This method is called in the runChoice method when the user chooses to clear the queue.
+    // this user choice relies on the clear method to remove all tasks from the queue.
+    // this method relies on the isEmpty method to check if the queue is empty before calling the clear method. 
+    // to save on processing time. The clear method is robust enough that it will not throw an error if 
+    // the queue is already empty.
+    static void clearQueue() {
+        pq.clear();                                  // Clear the queue.
+        System.out.println("Queue cleared.");        // Print a message to the console indicating 
+                                                     // that the queue has been cleared.
+    }
+
+    // This method is called when the user chooses to get the size of the queue.
+    // It prints the size of the queue to the console.
+    // this method relies on the size method to get the size of the queue.
+    // the size can be any number from 0 up, the queue grows as tasks are added.
+    static void printSize() {
+        System.out.println("Size: " + pq.size()); // Print the size of the queue to the console.
+    }
+
+    // This method is called when the user chooses to check if the queue is empty.
+    // this method relies on the isEmpty method to check if the queue is empty.
+    // this method does not return anything it simply prints a message to the console. 
+    static void printIsEmpty() {
+
+        if (pq.isEmpty()) {                                               // Check if the queue is empty.
+            System.out.println("Queue is empty.");                      // Print a message to the console 
+                                                                          // if the queue is empty.
+        } else {
+            System.out.println("Queue contains some number of tasks."); // Print a message to the console if 
+                                                                          // the queue is not empty.
+        }
+    }
+}
@@ -0,0 +1,730 @@
+package pq;                         // all of the task management classes live in the pq package.
+
+import java.util.ArrayList;         // holds the tasks topK returns.
+import java.util.Arrays;            // Arrays is used to grow and shrink the arrays behind the queue.
+import java.util.Collection;        // Collection is used to add or drain many tasks at once.
+import java.util.ConcurrentModificationException;  // thrown when the queue changes under an iterator.
+import java.util.Iterator;          // walks the tasks in priority order without removing them.
+import java.util.List;              // the tasks topK returns.
+import java.util.NoSuchElementException;    // thrown when a task is asked for that is not in the queue.
+import java.util.Spliterator;       // the stream view is built from the ordered iterator.
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// The PriorityQueue implements a priority queue ADT using an array to store the tasks and their priorities.
+// The PriorityQueue class is a custom data structure that organizes tasks based on their priority, using an 
+// array-backed implementation. Each task is assigned a numerical priority, with lower numbers representing 
+// higher priority. When tasks are added, the class uses the upHeap method to maintain the correct order, 
+// ensuring that the highest-priority task is always at the front. When tasks are removed, the downHeap method 
+// reorganizes the remaining tasks to preserve the queue’s structure. This allows users to efficiently add, view, 
+// and remove tasks in priority order, making it ideal for task management applications where urgent items 
+// need to be handled first. The PriorityQueue class in this program manages tasks with methods like add(), remove(), 
+// peek(), and heap maintenance methods such as upheap() and downheap() to efficiently maintain the heap property for 
+// prioritized task management. It is the HEAP kind of TaskQueue. Iterating over the queue (or using
+// stream() or topK) visits the tasks from most to least urgent without removing them.
+class PriorityQueue implements TaskQueue, Iterable<Job> {
+    static final int CAPACITY = 10; // INITIAL CAPACITY OF THE QUEUE. the queue starts out with room for 10 tasks
+                                    // and grows geometrically (doubles) whenever it runs out of room.
+    static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;  // the largest array length the JVM will reliably 
+                                                            // allocate. the queue can never grow past this.
+    int[] priorities;               // the priorities of the tasks stored in heap order. The tasks are kept in a
+                                    // struct-of-arrays layout: the sift loops only ever compare this primitive
+                                    // array so no Job object has to be created or dereferenced per operation.
+    int[] handles;                  // the handle of the task stored at each heap index, parallel to priorities.
+                                    // indexes past the end of the heap hold the handles that are free.
+    int[] slots;                    // the position map: slots[h] is the heap index of the task with handle h.
+                                    // a handle h is in the queue exactly when slots[h] < size.
+    String[] tasks;                 // the task names, indexed by handle. A task name never moves while its
+                                    // task is in the queue, only its priority and handle are sifted.
+    int[] generations;              // generations[h] counts how often handle h has been freed. The handle
+                                    // enqueue returns is a long that carries the generation of h in its
+                                    // high 32 bits and h in its low 32 bits, so once the task leaves the
+                                    // queue and h is given out again the old long no longer matches.
+    int freshGeneration = 0;        // the generation of handles that are new to the arrays. trimToSize
+                                    // raises it above the generation of every handle it drops, so the
+                                    // old longs for those handles stay stale if the arrays grow back.
+    int size = 0;                   // the size variable is an integer that will keep track of the number of tasks
+                                    // in the queue.
+    final int arity;                // the number of children each task has in the heap (2, 4 or 8).
+    final int arityShift;           // log2 of the arity, so multiplying and dividing by the arity are shifts.
+    QueueMetrics metrics;           // counts the operations of the queue, or null (the default) to count nothing.
+    int modCount = 0;               // counts the changes to the heap so an iterator can tell the queue changed.
+
+    // Constructor for the PriorityQueue class that initializes the queue arrays and size.
+    // the queue starts out with the default capacity of 10 and grows as tasks are added.
+    // the size will always be set to 0 when the queue is initialized.
+    public PriorityQueue() {
+        this(CAPACITY);             // Start out with the default capacity of 10.
+    }
+
+    // Constructor that lets the caller pick the starting capacity. Picking a capacity close to the
+    // number of tasks that will be added avoids growing the arrays while the queue is filled.
+    public PriorityQueue(int initialCapacity) {
+        this(initialCapacity, 2);   // the default heap is a binary heap.
+    }
+
+    // Constructor that also picks the arity of the heap: 2 (binary), 4 or 8. A heap with more children
+    // per task is less deep, so a dequeue visits fewer levels, and all the children of a task sit next
+    // to each other in the priorities array so one sift step scans them in one or two cache lines.
+    // This pays off for large queues where every level of a binary heap is a likely cache miss.
+    public PriorityQueue(int initialCapacity, int arity) {
+        if (arity != 2 && arity != 4 && arity != 8) {   // Check the arity is supported.
+            throw new IllegalArgumentException("Arity must be 2, 4 or 8.");
+        }
+        this.arity = arity;
+        this.arityShift = Integer.numberOfTrailingZeros(arity);
+        if (initialCapacity < 1 || initialCapacity > MAX_CAPACITY) {    // Check the capacity is usable.
+            throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY + ".");
+        }
+        int length = initialCapacity;
+        priorities = new int[length];           // Initialize the priority array.
+        handles = new int[length];              // Initialize the handle array and the position map.
+        slots = new int[length];
+        tasks = new String[length];             // Initialize the task name array.
+        generations = new int[length];          // every handle starts out at generation 0.
+        for (int h = 0; h < length; h++) {
+            handles[h] = h;                     // every handle starts out free, parked at its own index.
+            slots[h] = h;
+        }
+        size = 0;                               // Initialize the size of the queue to 0.
+    }
+    // this method is used to check if the queue is empty. It returns true if the queue is empty and false otherwise.
+    public boolean isEmpty() {
+        return size == 0;           // return true if the size of the queue's size is currently 0(empty), otherwise
+                                    // return false.
+    }
+    // this method returns the number of tasks currently in the queue.
+    public int size() {
+        return size;                // return the size of the queue.
+    }
+
+    // this method returns how many tasks the queue can hold before it has to grow its arrays.
+    public int capacity() {
+        return priorities.length;           // all of the arrays always have the same length.
+    }
+
+    // this method attaches metrics to the queue (or detaches them when null). From then on every
+    // operation is counted and every enqueue and dequeue is timed, see QueueMetrics.
+    public void setMetrics(QueueMetrics newMetrics) {
+        metrics = newMetrics;
+        if (metrics != null) {
+            metrics.recordDepth(size);
+        }
+    }
+
+    // this method is used to clear the queue of all tasks. It sets the size of the queue to 0 and 
+    // sets each task name in the queue to null. The arrays keep their capacity so that refilling the
+    // queue does not have to grow them again; call trimToSize() to give the memory back.
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            tasks[handles[i]] = null;   // set each task name to null so it can be garbage collected.
+            generations[handles[i]]++;  // and make the handle of the task stale.
+        }
+        size = 0;                   // set the size of the queue to 0 to indicate that the queue is empty.
+        modCount++;
+        if (metrics != null) {
+            metrics.recordClear();
+        }
+    }
+
+    // this method makes sure the queue can hold at least minCapacity tasks without growing again.
+    // It is useful before adding a large number of tasks at once.
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > capacity()) {         // only grow if the arrays are too small.
+            grow(minCapacity);
+        }
+    }
+
+    // this method shrinks the arrays down to the number of tasks currently in the queue (but never
+    // below 1). It is the only place the queue shrinks, so a queue that keeps going up and down in
+    // size never has to reallocate its arrays over and over. Handles of tasks in the queue stay 
+    // valid, so the arrays can only shrink down to one past the largest handle still in use.
+    public void trimToSize() {
+        int end = size;                         // one past the last task in the heap.
+        int newLength = Math.max(size, 1);      // an empty queue keeps room for one task.
+        for (int i = 0; i < end; i++) {
+            newLength = Math.max(newLength, handles[i] + 1);
+        }
+        if (newLength < priorities.length) {
+            int j = end;                        // park the free handles that survive the shrink
+            for (int h = 0; h < newLength; h++) {   // right after the end of the heap.
+                if (slots[h] >= end) {
+                    handles[j] = h;
+                    slots[h] = j;
+                    j++;
+                }
+            }
+            for (int h = newLength; h < priorities.length; h++) {  // the handles that are dropped.
+                freshGeneration = Math.max(freshGeneration, generations[h] + 1);
+            }
+            priorities = Arrays.copyOf(priorities, newLength);
+            handles = Arrays.copyOf(handles, newLength);
+            slots = Arrays.copyOf(slots, newLength);
+            tasks = Arrays.copyOf(tasks, newLength);
+            generations = Arrays.copyOf(generations, newLength);
+        }
+    }
+
+    // this method grows the arrays geometrically (doubling their length) so that the cost of copying
+    // is spread out over all of the enqueues. minCapacity is the smallest length that is acceptable.
+    void grow(int minCapacity) {
+        if (minCapacity > MAX_CAPACITY || minCapacity < 0) {    // a negative value means the int overflowed.
+            throw new OutOfMemoryError("Queue cannot hold more than " + MAX_CAPACITY + " tasks.");
+        }
+        int oldCapacity = capacity();
+        int newCapacity = oldCapacity <= MAX_CAPACITY / 2 ? oldCapacity * 2 : MAX_CAPACITY;
+        if (newCapacity < minCapacity) {        // doubling was not enough (e.g. ensureCapacity).
+            newCapacity = minCapacity;
+        }
+        int oldLength = priorities.length;
+        int newLength = newCapacity;
+        priorities = Arrays.copyOf(priorities, newLength);
+        handles = Arrays.copyOf(handles, newLength);
+        slots = Arrays.copyOf(slots, newLength);
+        tasks = Arrays.copyOf(tasks, newLength);
+        generations = Arrays.copyOf(generations, newLength);
+        Arrays.fill(generations, oldLength, newLength, freshGeneration);
+        for (int h = oldLength; h < newLength; h++) {
+            handles[h] = h;                     // the new handles are free, parked at their own index.
+            slots[h] = h;
+        }
+    }
+
+    // this method is used to add a task to the queue. It takes in a task name and priority as parameters.
+    // this method uses upheap to restore the heap property after insertion. upheap could have been inside 
+    // the enqueue method but it is separated out to make the code more readable. The queue is never full: 
+    // if the arrays run out of room they are grown first. No objects are created here unless the arrays 
+    // have to grow, the task name and priority are written straight into the arrays.
+    // The method returns the handle of the new task. The handle can be passed to updatePriority, 
+    // remove and contains for as long as the task is in the queue. Once the task leaves the queue
+    // the handle is stale: contains returns false for it and updatePriority and remove throw, even
+    // after its place in the arrays has been given to a later task.
+    public long enqueue(String taskName, int priority) {
+        long start = metrics != null ? metrics.start() : 0;    // only read the clock if it is recorded.
+        if (size == capacity()) {         // Check if the arrays are out of room
+            grow(size + 1);               // and grow them if they are.
+        }
+    
+        // Add the new task at the end of the heap
+        int k = size;                   // the index just past the last task
+        int handle = handles[k];        // Take the free handle parked at that position
+        priorities[k] = priority;       // Insert the priority at that position
+        tasks[handle] = taskName;       // and store the task name under its handle.
+    
+        size++;  // Increment size to reflect that a new task has been added
+    
+        // Call upheap to restore the heap property after insertion
+        upheap(k);  // Pass the index of the newly added task
+        modCount++;
+        if (metrics != null) {
+            metrics.recordEnqueue(start, size);
+        }
+        return handleOf(handle);
+    }
+
+    // this method adds many tasks at once. taskNames[i] is added with priorities[i]. Instead of calling
+    // upheap for every task (O(n log n)) the tasks are all appended first and the heap is then rebuilt
+    // bottom-up with downheap (Floyd's heapify), which is O(n). This is the fast way to load a large
+    // backlog at startup. It returns the handles of the new tasks: the handle of taskNames[i] is
+    // element i, the same handle enqueue would have returned for it.
+    public long[] enqueueAll(String[] taskNames, int[] newPriorities) {
+        if (taskNames.length != newPriorities.length) {    // every task needs exactly one priority.
+            throw new IllegalArgumentException("There must be one priority for every task name.");
+        }
+        int oldSize = size;
+        ensureCapacity(size + taskNames.length);    // grow at most once for the whole batch.
+        long[] added = new long[taskNames.length];
+        for (int i = 0; i < taskNames.length; i++) {
+            added[i] = append(taskNames[i], newPriorities[i]);
+        }
+        heapify(oldSize);
+        if (metrics != null) {
+            metrics.recordEnqueues(size - oldSize, size);
+        }
+        return added;
+    }
+
+    // this method adds every job in the collection at once, using the task name and priority of
+    // each job. It works the same way as the array version of enqueueAll and returns the handles in
+    // the order the collection hands out its jobs.
+    public long[] enqueueAll(Collection<? extends Job> jobs) {
+        int oldSize = size;
+        ensureCapacity(size + jobs.size());         // grow at most once for the whole batch.
+        long[] added = new long[jobs.size()];
+        int i = 0;
+        for (Job job : jobs) {
+            added[i++] = append(job.getTaskName(), job.getPriority());
+        }
+        heapify(oldSize);
+        if (metrics != null) {
+            metrics.recordEnqueues(size - oldSize, size);
+        }
+        return added;
+    }
+
+    // this method puts a task at the end of the heap without sifting it. It must be followed by a
+    // call to heapify before the queue is used again. The arrays must already have room for the task.
+    // It returns the handle of the task, which heapify does not change.
+    long append(String taskName, int priority) {
+        int k = size;                   // the index just past the last task
+        int handle = handles[k];        // Take the free handle parked at that position
+        priorities[k] = priority;
+        tasks[handle] = taskName;
+        size++;
+        modCount++;
+        return handleOf(handle);
+    }
+
+    // returns the handle enqueue gives out for the task stored under h: the generation of h in the
+    // high 32 bits and h in the low 32 bits.
+    long handleOf(int h) {
+        return ((long) generations[h] << 32) | h;
+    }
+
+    // this method restores the heap property after tasks were appended. from is the number of tasks
+    // that were already in the heap before the new ones were appended.
+    // If the new tasks are at least as many as the old ones the whole heap is rebuilt bottom-up with
+    // downheap, otherwise it is cheaper to upheap just the new tasks.
+    void heapify(int from) {
+        if (size < 2) {
+            return;                     // zero or one task is always a heap.
+        }
+        if (size - from >= from) {
+            for (int k = parent(size - 1); k >= 0; k--) {  // start at the last task that has a child
+                downheap(k);
+            }
+        } else {
+            for (int k = from; k < size; k++) {
+                upheap(k);
+            }
+        }
+    }
+
+    // this method lowers the priority of every task by shift (stopping at Integer.MIN_VALUE), for
+    // DelayedJobQueue when it rebases its aging keys. The same shift keeps the tasks in the same
+    // order, so the heap stays a heap and nothing is sifted, but an iterator must still start over.
+    void shiftPriorities(long shift) {
+        for (int i = 0; i < size; i++) {
+            priorities[i] = (int) Math.max((long) priorities[i] - shift, Integer.MIN_VALUE);
+        }
+        modCount++;
+    }
+
+    // this method removes up to maxTasks tasks from the front of the queue in priority order and hands
+    // each task name and priority to the sink. It returns how many tasks were removed. Draining in 
+    // batches saves the caller from checking isEmpty and calling dequeue for every single task.
+    public int drainTo(TaskSink sink, int maxTasks) {
+        int drained = 0;
+        while (drained < maxTasks && size > 0) {
+            int handle = handles[0];
+            String taskName = tasks[handle];
+            int priority = priorities[0];
+            removeAt(0);                    // remove the task before handing it out.
+            sink.accept(taskName, priority);
+            drained++;
+        }
+        if (metrics != null) {
+            metrics.recordDequeues(drained, size);
+        }
+        return drained;
+    }
+
+    // this method removes up to maxTasks tasks in priority order and adds their task names to the
+    // collection. It returns how many tasks were removed.
+    public int drainTo(Collection<? super String> sink, int maxTasks) {
+        int drained = 0;
+        while (drained < maxTasks && size > 0) {
+            sink.add(dequeue());
+            drained++;
+        }
+        return drained;
+    }
+
+    // this method hands the k most urgent tasks to the sink in priority order without removing them
+    // and returns how many it handed over (fewer than k if the queue is smaller). It does not sort the
+    // queue: it walks the heap from the front with a small frontier heap (see OrderedIterator), so it
+    // is O(k log k) however large the queue is. A dashboard can call it every second for the top 100.
+    public int topK(TaskSink sink, int k) {
+        if (k < 0) {                            // Check the count makes sense.
+            throw new IllegalArgumentException("k must not be negative.");
+        }
+        OrderedIterator iterator = new OrderedIterator(k);
+        int count = 0;
+        while (count < k && iterator.hasNext()) {
+            int i = iterator.nextIndex();
+            sink.accept(tasks[handles[i]], priorities[i]);
+            count++;
+        }
+        return count;
+    }
+
+    // this method returns the k most urgent tasks in priority order without removing them, as Jobs.
+    public List<Job> topK(int k) {
+        List<Job> top = new ArrayList<>(Math.min(Math.max(k, 0), size));
+        topK((taskName, priority) -> top.add(new Job(taskName, priority)), k);
+        return top;
+    }
+
+    // this method returns an iterator over the tasks from most to least urgent. It works like topK:
+    // every call to next is O(log n) and only as much of the heap is looked at as is iterated, so
+    // stopping early is cheap. The queue must not change while the iterator is in use.
+    @Override
+    public Iterator<Job> iterator() {
+        return new OrderedIterator(16);
+    }
+
+    // this method returns the tasks from most to least urgent as a lazy stream, for example
+    // stream().limit(100). Like the iterator it never changes the queue.
+    public Stream<Job> stream() {
+        return StreamSupport.stream(
+                Spliterators.spliterator(iterator(), size, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    // An OrderedIterator walks the heap in priority order without changing it. The most urgent task
+    // not returned yet is always either the front or a child of a task that was already returned, so
+    // those candidates (the frontier) are kept in a small binary heap of their heap indexes. Taking
+    // the best candidate and adding its children costs O(log k) after k tasks, and the frontier never
+    // holds more than 1 + k * (arity - 1) indexes.
+    final class OrderedIterator implements Iterator<Job> {
+        int[] frontier;                         // heap indexes of the candidates, as a binary heap
+        int count = 0;                          // ordered by their priority.
+        final int expectedModCount = modCount;  // the queue must not change while iterating.
+
+        // expected is how many tasks the caller is likely to take, to size the frontier.
+        OrderedIterator(int expected) {
+            long room = 1 + (long) Math.min(expected, size) * (arity - 1);
+            frontier = new int[(int) Math.min(Math.max(room, 1), Math.max(size, 1))];
+            if (size > 0) {
+                frontier[count++] = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return count > 0;
+        }
+
+        @Override
+        public Job next() {
+            int i = nextIndex();
+            return new Job(tasks[handles[i]], priorities[i]);
+        }
+
+        // this method takes the best candidate off the frontier, puts its children on and returns
+        // its heap index.
+        int nextIndex() {
+            if (modCount != expectedModCount) {     // Check the heap is still the one being walked.
+                throw new ConcurrentModificationException("The queue changed while it was being iterated.");
+            }
+            if (count == 0) {
+                throw new NoSuchElementException("No more tasks in the queue.");
+            }
+            int best = frontier[0];
+            int last = frontier[--count];
+            if (count > 0) {
+                siftDown(last);                 // the last candidate fills the hole at the top.
+            }
+            if (size > 1 && best <= parent(size - 1)) {    // leaves have no children to add.
+                int child = firstChild(best);
+                int stop = Math.min(child + arity, size);
+                for (; child < stop; child++) {
+                    push(child);
+                }
+            }
+            return best;
+        }
+
+        void push(int index) {
+            if (count == frontier.length) {
+                frontier = Arrays.copyOf(frontier, count * 2);
+            }
+            int k = count++;
+            int p = priorities[index];
+            while (k > 0) {
+                int parent = (k - 1) >>> 1;
+                if (priorities[frontier[parent]] <= p) {
+                    break;
+                }
+                frontier[k] = frontier[parent];
+                k = parent;
+            }
+            frontier[k] = index;
+        }
+
+        void siftDown(int index) {
+            int p = priorities[index];
+            int k = 0;
+            int half = count >>> 1;             // candidates from half on have no children.
+            while (k < half) {
+                int j = 2 * k + 1;
+                if (j + 1 < count && priorities[frontier[j + 1]] < priorities[frontier[j]]) {
+                    j++;
+                }
+                if (p <= priorities[frontier[j]]) {
+                    break;
+                }
+                frontier[k] = frontier[j];
+                k = j;
+            }
+            frontier[k] = index;
+        }
+    }
+
+    // this method returns the handle of the most urgent task without removing it. It throws if the
+    // queue is empty.
+    public long peekHandle() {
+        if (size == 0) {                        // Check if the queue is empty.
+            throw new NoSuchElementException("Cannot peek into an empty queue.");
+        }
+        return handleOf(handles[0]);
+    }
+
+    // this method returns one more than the largest value the low 32 bits of a handle can have
+    // until the queue grows again. Code that keeps its own array indexed by the low 32 bits of the
+    // handles (like JobScheduler) can size it with this.
+    public int handleCapacity() {
+        return slots.length;
+    }
+
+    // this method returns true if the task with the given handle is still in the queue. It is O(1)
+    // because the position map already knows where every handle is. A handle whose task has left the
+    // queue is never contained again, the generation in it no longer matches.
+    public boolean contains(long handle) {
+        int h = (int) handle;                   // the low 32 bits, where the task is stored.
+        return h >= 0 && h < slots.length && slots[h] < size && generations[h] == (int) (handle >>> 32);
+    }
+
+    // this method changes the priority of a task that is already in the queue. Changing the priority
+    // of a Job object does not move anything in the queue, this method has to be used instead. The task
+    // is sifted up if it became more urgent and down if it became less urgent, so this is O(log n).
+    public void updatePriority(long handle, int newPriority) {
+        if (!contains(handle)) {                // Check the task is still in the queue.
+            throw new NoSuchElementException("No task with handle " + handle + " in the queue.");
+        }
+        int k = slots[(int) handle];            // find the task in the heap.
+        int oldPriority = priorities[k];
+        priorities[k] = newPriority;
+        modCount++;
+        if (metrics != null) {
+            metrics.recordUpdate();
+        }
+        if (newPriority < oldPriority) {
+            upheap(k);                          // more urgent: move toward the front.
+        } else if (newPriority > oldPriority) {
+            downheap(k);                        // less urgent: move away from the front.
+        }
+    }
+
+    // this method removes the task with the given handle from anywhere in the queue and returns its
+    // task name. It is O(log n), the queue does not have to be drained to cancel a task.
+    public String remove(long handle) {
+        if (!contains(handle)) {                // Check the task is still in the queue.
+            throw new NoSuchElementException("No task with handle " + handle + " in the queue.");
+        }
+        String removedTask = tasks[(int) handle];
+        removeAt(slots[(int) handle]);
+        if (metrics != null) {
+            metrics.recordRemove(size);
+        }
+        return removedTask;
+    }
+
+    // this method removes the task at heap index k. The last task in the heap is moved into the hole
+    // and sifted in whichever direction restores the heap property. The handle of the removed task is
+    // parked right after the end of the heap so it can be reused.
+    void removeAt(int k) {
+        int handle = handles[k];                // the handle that is leaving the queue.
+        tasks[handle] = null;                   // remove the reference to the task name.
+        generations[handle]++;                  // the long handle of the task is stale from now on.
+        size--;                                 // One less task in the queue.
+        modCount++;
+        int last = size;                        // the index of the last task in the heap.
+        if (k != last) {                        // the last task is not the one being removed:
+            priorities[k] = priorities[last];   // move the last task into the hole
+            handles[k] = handles[last];
+            slots[handles[k]] = k;
+            handles[last] = handle;             // and park the freed handle where the last task was.
+            slots[handle] = last;
+            if (k > 0 && priorities[k] < priorities[parent(k)]) {
+                upheap(k);                      // the moved task is more urgent than its new parent.
+            } else {
+                downheap(k);
+            }
+        }
+    }
+    
+    
+
+    // be sure to check if the queue is empty before calling this method.
+    // This method removes the task with the highest priority from the queue (the
+    // first element in the array) this method relies on the downheap method
+    // to return the correct task to the user. the task that this method returns is
+    // the task with the highest priority in the queue. or the lowest numerical
+    // value priority.
+    public String dequeue() {
+        if (size == 0) {                        // Check if the queue is empty.
+            throw new NoSuchElementException("Cannot dequeue from an empty queue.");
+        }
+        long start = metrics != null ? metrics.start() : 0;    // only read the clock if it is recorded.
+        String removedTask = tasks[handles[0]];     // Store the task at the front of the queue (highest priority)
+    
+        removeAt(0);                            // Replace the root with the last task in the heap and
+                                                // restore the heap property starting from the root
+        if (metrics != null) {
+            metrics.recordDequeue(start, size);
+        }
+        
+        return removedTask;                     // Return the task name of the removed task
+    }
+
+    // return the priority of the task with the highest priority without removing it
+    // from the queue.
+    // This method will print a message and return -1 if the queue is empty.
+    // So long as upheap/downheap are implemented correctly, this method will work
+    // as intended otherwise without a correctly implemented priority queue this
+    // method will not work as intended.
+    public int peekPriority() {
+        if (metrics != null) {
+            metrics.recordPeek();
+        }
+        if (size == 0) {                        // Check if the queue is empty.
+            // If the queue is empty, print an error message and return -1 to 
+            // indicate that there are no tasks in the queue.
+            System.out.println("TASK LIST EMPTY\n\nADD A TASK TO THE QUEUE");
+            return -1;                          // Exit the method if the queue is empty.
+
+        }
+        return priorities[0];                   // return the priority of the task with the highest priority 
+                                                // without removing it from the queue. the task at the front 
+                                                // of the priority queue is the task with the highest priority. 
+                                                // Always so long as upheap/downheap are implemented correctly.
+    }
+
+    // this method peekTask is used to return the task with the highest priority
+    // without removing it from the queue. There is error handleing done in this method
+    // because in PqTest class there is no redundent method that checks if the queue is empty before calling this method.
+    // this method will print the task with the highest priority without removing it from the queue.
+    public String peekTask() {
+        if (metrics != null) {
+            metrics.recordPeek();
+        }
+        if (size == 0) {
+            return "TASK LIST EMPTY\n\nADD A TASK TO THE QUEUE";
+
+        }
+        return tasks[handles[0]];               // return the task with the highest priority without removing it from the
+                                                // queue.
+    }
+
+    // auxiliary methods for the enqueue and dequeue methods.
+    // The heap is stored starting at index 0. The children of the task at index i are at indexes
+    // arity * i + 1 up to arity * i + arity, and its parent is at index (i - 1) / arity. With the
+    // default arity of 2 this is the usual 2i + 1, 2i + 2 and (i - 1) / 2.
+
+    // returns the index of the first child of the task at index k.
+    int firstChild(int k) {
+        return (k << arityShift) + 1;
+    }
+
+    // returns the index of the parent of the task at index k. k must not be the front.
+    int parent(int k) {
+        return (k - 1) >>> arityShift;
+    }
+
+    // Restores heap order by moving element at index k downward
+    void downheap(int k) {
+        if (size < 2) {                         // a single task has no children to compare with
+            return;
+        }
+        int j, v;                               // j is the index of the child, v is the priority at index k
+        v = priorities[k];                      // store the priority at index k
+        int h = handles[k];                     // and the handle of the task that goes with it
+        int end = size;                         // one past the last task in the heap
+        int lastParent = parent(end - 1);       // indexes past lastParent are leaves (they have no children)
+        int comparisons = 0, swaps = 0;         // counted for the metrics, the counting costs next to nothing
+        
+        // The comments here reflect the structure of the while loop
+        // this while loop is used to move the element at index k down the heap until
+        // it is in the correct position. The while loop will continue until 
+        // the element at index k is smaller than or equal to all of its children.
+        while (k <= lastParent) {               // while k has at least one child
+            j = firstChild(k);                  // j is the first (left most) child
+            int stop = Math.min(j + arity, end);    // the children of k are the indexes j up to stop - 1
+            int smallest = priorities[j];
+            comparisons += stop - j;            // one per child after the first, plus v against the smallest
+
+            for (int c = j + 1; c < stop; c++) {    // scan the rest of the children, they are next to
+                if (priorities[c] < smallest) {     // each other in the array
+                    j = c;                          // j becomes index of smaller child
+                    smallest = priorities[c];
+                }
+            }
+
+            if (v <= smallest)                  // if current value is smaller than or equal to all children
+                break;                              // stop
+
+            priorities[k] = priorities[j];      // move smaller child up
+            handles[k] = handles[j];
+            slots[handles[k]] = k;              // and record its new position
+            k = j;                              // move down to child's position
+            swaps++;
+        }
+
+        priorities[k] = v;                      // place the original value in its final position
+        handles[k] = h;
+        slots[h] = k;
+        if (metrics != null) {
+            metrics.recordSift(comparisons, swaps);
+        }
+    }
+
+    // Restores heap order by moving element at index k upward
+    // this method is used to move the element at index k up the heap until it is in the correct position.
+    // The while loop will continue until the element at index k is not smaller than its parent or it
+    // reaches the front (index 0). Checking k > 0 replaces the old sentinel Job so nothing is allocated here.
+    void upheap(int k) {
+        int v;                                                      // v is the priority at index k 
+                                                                    // (as specified by the next line)
+        v = priorities[k];                                          // Store the priority of the task
+        int h = handles[k];                                         // Store the handle as well
+        int comparisons = 0, swaps = 0;                             // counted for the metrics
+        
+        while (k > 0) {                                         // Stop once the front is reached
+            int parent = parent(k);                                 // index of the parent of k
+            comparisons++;
+            if (priorities[parent] <= v)                            // Compare the priority of 
+                break;                                              // the current node with its parent
+            priorities[k] = priorities[parent];                     // Move the parent down
+            handles[k] = handles[parent];
+            slots[handles[k]] = k;                                  // and record its new position
+            k = parent;                                             // Move up to the parent
+            swaps++;
+        }
+        
+        priorities[k] = v;                                          // Place the task at the correct position 
+        handles[k] = h;
+        slots[h] = k;
+        if (metrics != null) {
+            metrics.recordSift(comparisons, swaps);
+        }
+    }
+    
+
+    /*
+     * Variable Explanations:
+     * 
+     * priorities: the array representing the heap; holds the integer priorities
+     * handles: the handle of the task at each heap index; the free handles are parked past the end of the heap
+     * slots: the position map from a handle to its heap index
+     * tasks: the task names, stored under their handle
+     * generations: how often each handle was freed, so a stale handle can be told apart from a reused one
+     * size: the number of elements currently in the heap
+     * k: the index of the element to be moved (moved up or down)
+     * v: the value originally at index k, which is being repositioned
+     * h: the handle originally at index k, it moves together with v
+     * j: used in downheap; represents the index of the child (either left or right) being compared
+     * comparisons, swaps: how much work one sift did, handed to the metrics if there are any
+     */
+
+}
@@ -0,0 +1,340 @@
+package pq;                         // all of the task management classes live in the pq package.
+
+import java.lang.management.ManagementFactory;      // the platform MBean server the metrics are registered with.
+import java.util.concurrent.Executors;              // builds the thread that takes the periodic snapshots.
+import java.util.concurrent.ScheduledExecutorService;   // runs the periodic snapshots.
+import java.util.concurrent.ScheduledFuture;        // handed back so periodic snapshots can be stopped.
+import java.util.concurrent.TimeUnit;               // the unit of the snapshot period.
+import java.util.concurrent.atomic.AtomicInteger;   // the depth gauges, written without a fence.
+import java.util.concurrent.atomic.LongAdder;       // the counters, striped so threads do not fight over them.
+import java.util.function.Consumer;                 // receives the periodic snapshots.
+import javax.management.JMException;                // thrown if the metrics cannot be registered.
+import javax.management.ObjectName;                 // the name the metrics are registered under.
+
+// QueueMetrics class description:
+// Counts what a PriorityQueue does: how many enqueues, dequeues, peeks, priority updates, removes and
+// clears it ran, how many enqueues were rejected, how many comparisons and swaps (moves of a task one
+// level up or down) upheap and downheap needed, the latency of every enqueue and dequeue and the
+// current and highest depth of the queue. Nothing is counted until the metrics are attached with
+// PriorityQueue.setMetrics; a queue without metrics only pays for one null check per operation.
+// Recording never allocates: the counters are LongAdders (striped, so the threads of a JobScheduler
+// do not all hit the same counter) and the latencies go into LatencyHistograms.
+// Reading the clock is the most expensive part (two System.nanoTime calls per operation, around 50ns
+// each on some virtual machines), so the latencies can be sampled: with a sample interval of n only
+// every n-th enqueue and dequeue is timed. The counters always count every operation.
+// The numbers can be read with snapshot(), handed to a callback every period with scheduleSnapshots,
+// or watched over JMX after register. One QueueMetrics belongs to one queue; the depth is the size
+// the queue reported last, so it is meaningless if two queues share the metrics.
+class QueueMetrics implements QueueMetricsMBean {
+    // A Snapshot is a copy of all of the numbers at one moment. Latencies are in nanoseconds.
+    static final class Snapshot {
+        final long timeMillis;          // when the snapshot was taken (System.currentTimeMillis).
+        final long enqueues, dequeues, peeks, updates, removes, clears, rejectedEnqueues;
+        final long comparisons, swaps;
+        final long depth, highWaterDepth;
+        final long enqueueP50, enqueueP90, enqueueP99, enqueueP999, enqueueMax;
+        final long dequeueP50, dequeueP90, dequeueP99, dequeueP999, dequeueMax;
+
+        Snapshot(QueueMetrics metrics) {
+            timeMillis = System.currentTimeMillis();
+            enqueues = metrics.enqueues.sum();
+            dequeues = metrics.dequeues.sum();
+            peeks = metrics.peeks.sum();
+            updates = metrics.updates.sum();
+            removes = metrics.removes.sum();
+            clears = metrics.clears.sum();
+            rejectedEnqueues = metrics.rejectedEnqueues.sum();
+            comparisons = metrics.comparisons.sum();
+            swaps = metrics.swaps.sum();
+            depth = metrics.depth.get();
+            highWaterDepth = metrics.highWaterDepth.get();
+            long[] counts = metrics.enqueueLatency.counts();
+            enqueueP50 = LatencyHistogram.percentile(counts, 0.5);
+            enqueueP90 = LatencyHistogram.percentile(counts, 0.9);
+            enqueueP99 = LatencyHistogram.percentile(counts, 0.99);
+            enqueueP999 = LatencyHistogram.percentile(counts, 0.999);
+            enqueueMax = LatencyHistogram.percentile(counts, 1.0);
+            counts = metrics.dequeueLatency.counts();
+            dequeueP50 = LatencyHistogram.percentile(counts, 0.5);
+            dequeueP90 = LatencyHistogram.percentile(counts, 0.9);
+            dequeueP99 = LatencyHistogram.percentile(counts, 0.99);
+            dequeueP999 = LatencyHistogram.percentile(counts, 0.999);
+            dequeueMax = LatencyHistogram.percentile(counts, 1.0);
+        }
+
+        @Override
+        public String toString() {
+            return "enqueues=" + enqueues + " dequeues=" + dequeues + " peeks=" + peeks
+                    + " updates=" + updates + " removes=" + removes + " clears=" + clears
+                    + " rejected=" + rejectedEnqueues + " comparisons=" + comparisons + " swaps=" + swaps
+                    + " depth=" + depth + " highWater=" + highWaterDepth
+                    + " enqueueNanos[p50=" + enqueueP50 + " p90=" + enqueueP90 + " p99=" + enqueueP99
+                    + " p999=" + enqueueP999 + " max=" + enqueueMax + "]"
+                    + " dequeueNanos[p50=" + dequeueP50 + " p90=" + dequeueP90 + " p99=" + dequeueP99
+                    + " p999=" + dequeueP999 + " max=" + dequeueMax + "]";
+        }
+    }
+
+    static final long NOT_TIMED = Long.MIN_VALUE;      // the start time of an operation that is not timed.
+
+    static ScheduledExecutorService snapshotThread;     // takes the periodic snapshots of every QueueMetrics,
+                                                        // created the first time it is needed.
+
+    final LongAdder enqueues = new LongAdder();
+    final LongAdder dequeues = new LongAdder();
+    final LongAdder peeks = new LongAdder();
+    final LongAdder updates = new LongAdder();
+    final LongAdder removes = new LongAdder();
+    final LongAdder clears = new LongAdder();
+    final LongAdder rejectedEnqueues = new LongAdder();
+    final LongAdder comparisons = new LongAdder();      // priority comparisons in upheap and downheap.
+    final LongAdder swaps = new LongAdder();            // tasks moved one level in upheap and downheap.
+    final LatencyHistogram enqueueLatency = new LatencyHistogram();
+    final LatencyHistogram dequeueLatency = new LatencyHistogram();
+    final AtomicInteger depth = new AtomicInteger();            // the size of the queue after its last operation.
+    final AtomicInteger highWaterDepth = new AtomicInteger();   // the largest depth seen since the last reset.
+    ObjectName objectName;              // the JMX name while registered, otherwise null.
+    final int sampleMask;               // sampleInterval - 1, the interval is a power of two.
+    int tick;                           // counts the timed operations to pick the samples.
+
+    // Constructor that times every enqueue and dequeue.
+    QueueMetrics() {
+        this(1);
+    }
+
+    // Constructor that only times every sampleInterval-th enqueue and dequeue (a power of two).
+    QueueMetrics(int sampleInterval) {
+        if (sampleInterval < 1 || Integer.bitCount(sampleInterval) != 1) {     // Check the interval.
+            throw new IllegalArgumentException("The sample interval must be a power of two.");
+        }
+        sampleMask = sampleInterval - 1;
+    }
+
+    // this method is called at the start of an enqueue or dequeue. It returns the time to pass to
+    // recordEnqueue or recordDequeue, or NOT_TIMED if this operation is not one of the samples.
+    long start() {
+        return (tick++ & sampleMask) == 0 ? System.nanoTime() : NOT_TIMED;
+    }
+
+    // this method records one enqueue that started at startNanos (the value start returned) and left
+    // depth tasks in the queue.
+    void recordEnqueue(long startNanos, int depth) {
+        if (startNanos != NOT_TIMED) {
+            enqueueLatency.record(System.nanoTime() - startNanos);
+        }
+        enqueues.increment();
+        recordDepth(depth);
+    }
+
+    // this method records count enqueues done at once (enqueueAll). They are not timed one by one.
+    void recordEnqueues(int count, int depth) {
+        enqueues.add(count);
+        recordDepth(depth);
+    }
+
+    // this method records one dequeue that started at startNanos and left depth tasks in the queue.
+    void recordDequeue(long startNanos, int depth) {
+        if (startNanos != NOT_TIMED) {
+            dequeueLatency.record(System.nanoTime() - startNanos);
+        }
+        dequeues.increment();
+        recordDepth(depth);
+    }
+
+    // this method records count dequeues done at once (drainTo). They are not timed one by one.
+    void recordDequeues(int count, int depth) {
+        dequeues.add(count);
+        recordDepth(depth);
+    }
+
+    void recordPeek() {
+        peeks.increment();
+    }
+
+    void recordUpdate() {
+        updates.increment();
+    }
+
+    void recordRemove(int depth) {
+        removes.increment();
+        recordDepth(depth);
+    }
+
+    void recordClear() {
+        clears.increment();
+        recordDepth(0);
+    }
+
+    // this method records an enqueue that was turned away (a full JobScheduler or a bad priority).
+    void recordRejectedEnqueue() {
+        rejectedEnqueues.increment();
+    }
+
+    // this method records the comparisons and swaps of one upheap or downheap.
+    void recordSift(int comparisonCount, int swapCount) {
+        comparisons.add(comparisonCount);
+        swaps.add(swapCount);
+    }
+
+    // this method stores the current depth and raises the high-water mark if it was passed. Only the
+    // queue's own (locked) operations call it, so the check and the write do not race. lazySet is
+    // enough for readers on other threads and does not cost a memory fence like a volatile write.
+    void recordDepth(int newDepth) {
+        depth.lazySet(newDepth);
+        if (newDepth > highWaterDepth.get()) {
+            highWaterDepth.lazySet(newDepth);
+        }
+    }
+
+    // this method returns a copy of all of the numbers right now.
+    Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    // this method hands a snapshot to the consumer every period, on a background daemon thread. Cancel
+    // the returned future to stop.
+    ScheduledFuture<?> scheduleSnapshots(long period, TimeUnit unit, Consumer<Snapshot> consumer) {
+        return snapshotThread().scheduleAtFixedRate(() -> consumer.accept(snapshot()), period, period, unit);
+    }
+
+    static synchronized ScheduledExecutorService snapshotThread() {
+        if (snapshotThread == null) {
+            snapshotThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "queue-metrics-snapshots");
+                thread.setDaemon(true);     // never keeps the program running on its own.
+                return thread;
+            });
+        }
+        return snapshotThread;
+    }
+
+    // this method registers the metrics with the platform MBean server as pq:type=QueueMetrics,name=name
+    // so they show up in JConsole and other JMX clients. It returns the name it used.
+    ObjectName register(String name) throws JMException {
+        ObjectName newName = new ObjectName("pq:type=QueueMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, newName);
+        objectName = newName;
+        return newName;
+    }
+
+    // this method takes the metrics off the MBean server again. It does nothing if they are not registered.
+    void unregister() throws JMException {
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+
+    @Override
+    public void reset() {
+        enqueues.reset();
+        dequeues.reset();
+        peeks.reset();
+        updates.reset();
+        removes.reset();
+        clears.reset();
+        rejectedEnqueues.reset();
+        comparisons.reset();
+        swaps.reset();
+        enqueueLatency.reset();
+        dequeueLatency.reset();
+        highWaterDepth.set(depth.get());
+    }
+
+    // the getters below are what JMX shows. Each percentile getter adds up the histogram again, which
+    // is fine for a human looking at JConsole; take a snapshot() to read many of them at once.
+    @Override
+    public long getEnqueueCount() {
+        return enqueues.sum();
+    }
+
+    @Override
+    public long getDequeueCount() {
+        return dequeues.sum();
+    }
+
+    @Override
+    public long getPeekCount() {
+        return peeks.sum();
+    }
+
+    @Override
+    public long getUpdateCount() {
+        return updates.sum();
+    }
+
+    @Override
+    public long getRemoveCount() {
+        return removes.sum();
+    }
+
+    @Override
+    public long getClearCount() {
+        return clears.sum();
+    }
+
+    @Override
+    public long getRejectedEnqueueCount() {
+        return rejectedEnqueues.sum();
+    }
+
+    @Override
+    public long getComparisonCount() {
+        return comparisons.sum();
+    }
+
+    @Override
+    public long getSwapCount() {
+        return swaps.sum();
+    }
+
+    @Override
+    public long getDepth() {
+        return depth.get();
+    }
+
+    @Override
+    public long getHighWaterDepth() {
+        return highWaterDepth.get();
+    }
+
+    @Override
+    public long getEnqueueLatencyP50() {
+        return LatencyHistogram.percentile(enqueueLatency.counts(), 0.5);
+    }
+
+    @Override
+    public long getEnqueueLatencyP99() {
+        return LatencyHistogram.percentile(enqueueLatency.counts(), 0.99);
+    }
+
+    @Override
+    public long getEnqueueLatencyP999() {
+        return LatencyHistogram.percentile(enqueueLatency.counts(), 0.999);
+    }
+
+    @Override
+    public long getEnqueueLatencyMax() {
+        return LatencyHistogram.percentile(enqueueLatency.counts(), 1.0);
+    }
+
+    @Override
+    public long getDequeueLatencyP50() {
+        return LatencyHistogram.percentile(dequeueLatency.counts(), 0.5);
+    }
+
+    @Override
+    public long getDequeueLatencyP99() {
+        return LatencyHistogram.percentile(dequeueLatency.counts(), 0.99);
+    }
+
+    @Override
+    public long getDequeueLatencyP999() {
+        return LatencyHistogram.percentile(dequeueLatency.counts(), 0.999);
+    }
+
+    @Override
+    public long getDequeueLatencyMax() {
+        return LatencyHistogram.percentile(dequeueLatency.counts(), 1.0);
+    }
+}
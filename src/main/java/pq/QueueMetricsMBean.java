@@ -0,0 +1,48 @@
+package pq;                         // all of the task management classes live in the pq package.
+
+// QueueMetricsMBean interface description:
+// What QueueMetrics shows over JMX (for example in JConsole or VisualVM under pq/QueueMetrics). The
+// latencies are in nanoseconds and cover everything recorded since the metrics were attached or last
+// reset. JMX requires this interface to be public.
+public interface QueueMetricsMBean {
+    long getEnqueueCount();
+
+    long getDequeueCount();
+
+    long getPeekCount();
+
+    long getUpdateCount();
+
+    long getRemoveCount();
+
+    long getClearCount();
+
+    long getRejectedEnqueueCount();
+
+    long getComparisonCount();
+
+    long getSwapCount();
+
+    long getDepth();
+
+    long getHighWaterDepth();
+
+    long getEnqueueLatencyP50();
+
+    long getEnqueueLatencyP99();
+
+    long getEnqueueLatencyP999();
+
+    long getEnqueueLatencyMax();
+
+    long getDequeueLatencyP50();
+
+    long getDequeueLatencyP99();
+
+    long getDequeueLatencyP999();
+
+    long getDequeueLatencyMax();
+
+    // sets every counter and histogram back to 0 and the high-water depth to the current depth.
+    void reset();
+}
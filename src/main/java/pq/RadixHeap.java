@@ -0,0 +1,175 @@
+package pq;                         // all of the task management classes live in the pq package.
+
+import java.util.Arrays;                    // fills the bucket arrays.
+import java.util.NoSuchElementException;    // thrown when dequeue is called on an empty queue.
+
+// RadixHeap class description:
+// A monotone task queue: it can be used when a task is never more urgent than the last task that
+// was dequeued (priorities only ever grow, as in event simulations and Dijkstra style scheduling).
+// Enqueueing a more urgent task than that throws. A task goes into bucket b, where b is the number
+// of the highest bit in which its priority differs from the last dequeued priority (bucket 0 holds
+// the tasks equal to it). Enqueue is O(1). When bucket 0 runs empty, dequeue finds the smallest
+// priority in the lowest non-empty bucket, makes it the new last priority and spreads that bucket
+// over the lower buckets; every task moves down at most 32 times in its life, so dequeue is O(1)
+// amortized (O(log C) for priorities spanning C). The buckets are FIFO lists and are spread in
+// order, so tasks with the same priority come out in the order they went in. The node a peek finds
+// is kept until the next dequeue or clear, and an enqueue only compares against it, so peeks between
+// enqueues do not scan the lowest bucket again.
+class RadixHeap implements TaskQueue {
+    static final int BUCKETS = 33;  // bucket 0 plus one per bit of an int.
+
+    final TaskNodes nodes = new TaskNodes();    // the tasks.
+    final int[] heads = new int[BUCKETS];       // the first node of every bucket, or NONE.
+    final int[] tails = new int[BUCKETS];       // the last node of every bucket, or NONE.
+    long occupied = 0;              // bit b is set while bucket b has tasks.
+    int last;                       // the last dequeued priority, stored unsigned (see key).
+    int size = 0;                   // the number of tasks in the queue.
+    int firstNode = TaskNodes.NONE; // the node dequeue removes next, or NONE if not worked out yet.
+
+    // Constructor for an empty queue. Any priority can be enqueued until the first dequeue.
+    public RadixHeap() {
+        clear();
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // this method removes every task. Any priority can be enqueued again afterwards.
+    public void clear() {
+        Arrays.fill(heads, TaskNodes.NONE);
+        Arrays.fill(tails, TaskNodes.NONE);
+        occupied = 0;
+        last = 0;                   // the smallest key, so nothing is rejected.
+        nodes.clear();
+        size = 0;
+        firstNode = TaskNodes.NONE;
+    }
+
+    // this method adds a task. Its priority must not be more urgent than the last dequeued priority.
+    public long enqueue(String taskName, int priority) {
+        int key = key(priority);
+        if (Integer.compareUnsigned(key, last) < 0) {   // Check the queue stays monotone.
+            throw new IllegalArgumentException("Priority " + priority
+                    + " is more urgent than the last dequeued priority " + (last ^ Integer.MIN_VALUE) + ".");
+        }
+        int node = nodes.add(taskName, priority);
+        int bucket = bucket(key);
+        append(bucket, node);
+        size++;
+        if (firstNode != TaskNodes.NONE) {
+            int firstBucket = bucket(key(nodes.priorities[firstNode]));
+            if (bucket < firstBucket || (bucket == firstBucket && priority < nodes.priorities[firstNode])) {
+                firstNode = node;       // strictly more urgent, so the first of equal tasks is kept.
+            }
+        }
+        return node;
+    }
+
+    // this method removes and returns the most urgent task.
+    public String dequeue() {
+        if (size == 0) {                // Check if the queue is empty.
+            throw new NoSuchElementException("Cannot dequeue from an empty queue.");
+        }
+        if (heads[0] == TaskNodes.NONE) {
+            redistribute();
+        }
+        int node = heads[0];
+        heads[0] = nodes.next[node];
+        if (heads[0] == TaskNodes.NONE) {
+            tails[0] = TaskNodes.NONE;
+            occupied &= ~1L;
+        }
+        String task = nodes.tasks[node];
+        nodes.release(node);
+        size--;
+        firstNode = TaskNodes.NONE;
+        return task;
+    }
+
+    public String peekTask() {
+        if (size == 0) {
+            return "TASK LIST EMPTY\n\nADD A TASK TO THE QUEUE";
+        }
+        return nodes.tasks[first()];
+    }
+
+    public int peekPriority() {
+        if (size == 0) {                // Check if the queue is empty.
+            System.out.println("TASK LIST EMPTY\n\nADD A TASK TO THE QUEUE");
+            return -1;
+        }
+        return nodes.priorities[first()];
+    }
+
+    // this method returns the node that dequeue would remove next, without moving anything (so a
+    // peek does not change which priorities may still be enqueued). The queue must not be empty.
+    int first() {
+        if (firstNode != TaskNodes.NONE) {
+            return firstNode;
+        }
+        int bucket = Long.numberOfTrailingZeros(occupied);
+        int best = heads[bucket];
+        if (bucket != 0) {              // bucket 0 is all one priority, other buckets are not.
+            for (int node = nodes.next[best]; node != TaskNodes.NONE; node = nodes.next[node]) {
+                if (nodes.priorities[node] < nodes.priorities[best]) {
+                    best = node;        // strictly smaller, so the first of equal tasks is kept.
+                }
+            }
+        }
+        firstNode = best;
+        return best;
+    }
+
+    // this method makes the smallest priority of the lowest non-empty bucket the new last priority and
+    // moves every task of that bucket to the bucket it belongs in now, keeping their order.
+    void redistribute() {
+        int bucket = Long.numberOfTrailingZeros(occupied);
+        int node = heads[bucket];
+        int min = key(nodes.priorities[node]);
+        for (int n = nodes.next[node]; n != TaskNodes.NONE; n = nodes.next[n]) {
+            int k = key(nodes.priorities[n]);
+            if (Integer.compareUnsigned(k, min) < 0) {
+                min = k;
+            }
+        }
+        last = min;
+        heads[bucket] = TaskNodes.NONE;
+        tails[bucket] = TaskNodes.NONE;
+        occupied &= ~(1L << bucket);
+        while (node != TaskNodes.NONE) {
+            int next = nodes.next[node];
+            nodes.next[node] = TaskNodes.NONE;
+            append(bucket(key(nodes.priorities[node])), node);
+            node = next;
+        }
+    }
+
+    // this method adds a node to the end of a bucket.
+    void append(int bucket, int node) {
+        int tail = tails[bucket];
+        if (tail == TaskNodes.NONE) {
+            heads[bucket] = node;
+            occupied |= 1L << bucket;
+        } else {
+            nodes.next[tail] = node;
+        }
+        tails[bucket] = node;
+    }
+
+    // this method returns the bucket of a key: 0 if it equals the last key, otherwise one more than
+    // the number of the highest bit in which the two differ.
+    int bucket(int key) {
+        return 32 - Integer.numberOfLeadingZeros(key ^ last);
+    }
+
+    // this method turns a priority into a key that compares the same way as unsigned numbers, so the
+    // bucket arithmetic also works for negative priorities.
+    static int key(int priority) {
+        return priority ^ Integer.MIN_VALUE;
+    }
+}
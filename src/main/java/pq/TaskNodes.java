@@ -0,0 +1,55 @@
+package pq;                         // all of the task management classes live in the pq package.
+
+import java.util.Arrays;            // grows the arrays.
+
+// TaskNodes class description:
+// A pool of linked list nodes for BucketQueue and RadixHeap. A node is an index into three parallel
+// arrays (task name, priority, next node), so the lists need no object per task. Removed nodes go on
+// a free list (linked through next) and are reused, so once the pool has grown to the largest size
+// the queue reaches, adding and removing tasks allocates nothing.
+final class TaskNodes {
+    static final int NONE = -1;     // the end of a list.
+
+    String[] tasks = new String[PriorityQueue.CAPACITY];    // the task name of every node.
+    int[] priorities = new int[PriorityQueue.CAPACITY];     // the priority of every node.
+    int[] next = new int[PriorityQueue.CAPACITY];           // the node after every node in its list.
+    int used = 0;                   // nodes below this index have been handed out at least once.
+    int free = NONE;                // the first node of the free list.
+
+    // this method takes a node from the free list (or a new one) and fills it in.
+    int add(String taskName, int priority) {
+        int node = free;
+        if (node != NONE) {
+            free = next[node];
+        } else {
+            if (used == tasks.length) {
+                int length = used <= PriorityQueue.MAX_CAPACITY / 2 ? used * 2 : PriorityQueue.MAX_CAPACITY;
+                if (length == used) {
+                    throw new OutOfMemoryError("Queue cannot hold more than " + used + " tasks.");
+                }
+                tasks = Arrays.copyOf(tasks, length);
+                priorities = Arrays.copyOf(priorities, length);
+                next = Arrays.copyOf(next, length);
+            }
+            node = used++;
+        }
+        tasks[node] = taskName;
+        priorities[node] = priority;
+        next[node] = NONE;
+        return node;
+    }
+
+    // this method puts a node back on the free list.
+    void release(int node) {
+        tasks[node] = null;         // remove the reference to the task name.
+        next[node] = free;
+        free = node;
+    }
+
+    // this method releases every node at once.
+    void clear() {
+        Arrays.fill(tasks, 0, used, null);
+        used = 0;
+        free = NONE;
+    }
+}
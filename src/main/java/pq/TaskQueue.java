@@ -0,0 +1,68 @@
+package pq;                         // all of the task management classes live in the pq package.
+
+// TaskQueue interface description:
+// The operations every single threaded task queue in this program has: PriorityQueue (a heap),
+// BucketQueue (one FIFO list per priority), RadixHeap (for priorities that only ever grow),
+// OffHeapPriorityQueue (a heap outside the Java heap, for very large queues) and PairingHeap (a heap
+// that can be merged with another in O(1)). Lower
+// numbers always mean higher priority. Code that only needs these operations can hold a TaskQueue
+// and let create pick the implementation that fits its priorities.
+interface TaskQueue {
+    // the kinds of queue create can make.
+    enum Kind {
+        HEAP,       // PriorityQueue: any priorities, O(log n) enqueue and dequeue.
+        BUCKET,     // BucketQueue: priorities from 0 to maxPriority, O(1) enqueue and dequeue, FIFO ties.
+        RADIX,      // RadixHeap: a task is never more urgent than the last one dequeued, FIFO ties.
+        OFF_HEAP,   // OffHeapPriorityQueue: any priorities, O(log n), about 8 bytes per task and no GC work.
+        PAIRING,    // PairingHeap: any priorities, O(1) enqueue and meld, O(log n) amortized dequeue.
+        AUTO        // BUCKET if maxPriority is small enough for a bucket array, HEAP otherwise.
+    }
+
+    // this method makes a queue of the given kind. maxPriority is the largest priority that will be
+    // enqueued; only BUCKET and AUTO use it.
+    static TaskQueue create(Kind kind, int maxPriority) {
+        switch (kind) {
+            case BUCKET:
+                return new BucketQueue(maxPriority);
+            case RADIX:
+                return new RadixHeap();
+            case OFF_HEAP:
+                return new OffHeapPriorityQueue();
+            case PAIRING:
+                return new PairingHeap();
+            case AUTO:
+                if (maxPriority >= 0 && maxPriority <= BucketQueue.AUTO_MAX_PRIORITY) {
+                    return new BucketQueue(maxPriority);
+                }
+                return new PriorityQueue();
+            default:
+                return new PriorityQueue();
+        }
+    }
+
+    // this method returns true if the queue is empty.
+    boolean isEmpty();
+
+    // this method returns the number of tasks in the queue.
+    int size();
+
+    // this method removes every task.
+    void clear();
+
+    // this method adds a task and returns its handle, which stays the same while the task is in the
+    // queue. Only PriorityQueue can do more with a handle (updatePriority, remove, contains); it is a
+    // long so that PriorityQueue can tell a handle whose task has left the queue from a reused one.
+    // OffHeapPriorityQueue keeps nothing per task to hand out: it returns the id of the task's name,
+    // which every task with that name shares.
+    long enqueue(String taskName, int priority);
+
+    // this method removes and returns the most urgent task. It throws if the queue is empty.
+    String dequeue();
+
+    // this method returns the most urgent task without removing it, or a message if the queue is empty.
+    String peekTask();
+
+    // this method returns the priority of the most urgent task without removing it, or prints a
+    // message and returns -1 if the queue is empty.
+    int peekPriority();
+}
@@ -0,0 +1,9 @@
+package pq;                         // all of the task management classes live in the pq package.
+
+// TaskSink description:
+// A TaskSink receives the tasks that PriorityQueue.drainTo removes from the queue. It gets the task
+// name and the priority as two separate values so that no Job object has to be created per task.
+interface TaskSink {
+    // this method is called once for every task that is drained, in priority order.
+    void accept(String taskName, int priority);
+}
@@ -0,0 +1,199 @@
+package pq;                         // all of the task management classes live in the pq package.
+
+import java.util.Arrays;            // grows the node arrays and empties the slots.
+
+// TimingWheel class description:
+// Holds tasks until a deadline tick, for DelayedJobQueue. It is a hierarchical timing wheel: 11
+// levels of 64 slots, level L covering ticks in steps of 64^L, enough for any long tick. A task goes
+// into the lowest level whose slot tells its deadline apart from the current tick (the highest group
+// of 6 bits in which the two differ), so adding a task and cancelling one are O(1) whatever the
+// number of tasks and however far away the deadline is.
+// advance moves the current tick forward. When it reaches a slot on level 0 every task in it is
+// due; when it reaches a slot on a higher level the tasks in it are spread over the lower levels
+// (each task moves down at most 11 times in its life). Every level has a 64 bit mask of the slots
+// that hold tasks, so advance jumps straight to the next slot that matters instead of stepping
+// through empty ticks.
+// The tasks are nodes in parallel arrays, like TaskNodes, but every slot is a doubly linked list so
+// a task can be taken out of the middle of it when it is cancelled. Nodes are reused, so the timer
+// add hands out carries the generation of its node, like the handles of PriorityQueue: a timer kept
+// after its task left the wheel no longer matches once the node is given to another task.
+final class TimingWheel {
+    static final int NONE = -1;         // the end of a list, and the slot of a node not in the wheel.
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;    // slots per level, one bit each in the level's mask.
+    static final int LEVELS = 11;               // 11 * 6 bits cover every bit of a long tick.
+
+    String[] tasks = new String[PriorityQueue.CAPACITY];    // the task name of every node.
+    int[] priorities = new int[PriorityQueue.CAPACITY];     // the priority of every node.
+    long[] deadlines = new long[PriorityQueue.CAPACITY];    // the tick every node is due at.
+    int[] next = new int[PriorityQueue.CAPACITY];           // the next node in the same slot (or due list).
+    int[] prev = new int[PriorityQueue.CAPACITY];           // the previous node in the same slot.
+    int[] slotOf = new int[PriorityQueue.CAPACITY];         // level * 64 + slot of every node, or NONE.
+    int[] generations = new int[PriorityQueue.CAPACITY];    // how often every node has been freed.
+    int used = 0;                       // nodes below this index have been handed out at least once.
+    int free = NONE;                    // the first node of the free list (linked through next).
+    final int[] heads = new int[LEVELS * SLOTS];    // the first node of every slot, or NONE.
+    final long[] occupied = new long[LEVELS];       // bit s of occupied[L] is set while slot s of level L has nodes.
+    long currentTick;                   // every tick up to this one has been processed. Never negative.
+    int size = 0;                       // the number of tasks waiting in the wheel.
+    int eventLevel;                     // the level of the slot nextEvent found.
+
+    // Constructor for an empty wheel whose current tick is 0.
+    TimingWheel() {
+        Arrays.fill(heads, NONE);
+    }
+
+    // this method adds a task that is due at deadlineTick and returns its timer, which can be passed
+    // to cancel: the generation of its node in the high 32 bits and the node in the low 32 bits. A
+    // deadline at or before the current tick comes out of the next advance.
+    long add(String taskName, int priority, long deadlineTick) {
+        int node = allocate();
+        tasks[node] = taskName;
+        priorities[node] = priority;
+        deadlines[node] = Math.max(deadlineTick, currentTick);
+        insert(node);
+        size++;
+        return ((long) generations[node] << 32) | node;
+    }
+
+    // this method takes a task out of the wheel before it is due. It returns false if the timer's
+    // task is not waiting in the wheel (it was never handed out, is already due, or was cancelled
+    // before), even if its node now holds another task.
+    boolean cancel(long timer) {
+        int node = (int) timer;
+        if (node < 0 || node >= used || slotOf[node] == NONE || generations[node] != (int) (timer >>> 32)) {
+            return false;
+        }
+        int slot = slotOf[node];
+        if (prev[node] != NONE) {
+            next[prev[node]] = next[node];
+        } else {
+            heads[slot] = next[node];
+            if (heads[slot] == NONE) {          // the slot is empty now.
+                occupied[slot >>> SLOT_BITS] &= ~(1L << (slot & (SLOTS - 1)));
+            }
+        }
+        if (next[node] != NONE) {
+            prev[next[node]] = prev[node];
+        }
+        release(node);
+        size--;
+        return true;
+    }
+
+    // this method moves the current tick forward to nowTick and returns the tasks that became due
+    // as a list linked through next (NONE if there are none). The caller reads the nodes and then
+    // hands each one back with release.
+    int advance(long nowTick) {
+        int due = NONE;
+        while (size > 0) {
+            long tick = nextEvent();
+            if (tick > nowTick) {
+                break;
+            }
+            currentTick = tick;
+            int level = eventLevel;
+            int slot = (int) (tick >>> (SLOT_BITS * level)) & (SLOTS - 1);
+            int node = heads[level * SLOTS + slot];
+            heads[level * SLOTS + slot] = NONE;
+            occupied[level] &= ~(1L << slot);
+            while (node != NONE) {
+                int following = next[node];
+                if (deadlines[node] <= currentTick) {   // due: move it to the due list.
+                    slotOf[node] = NONE;
+                    next[node] = due;
+                    due = node;
+                    size--;
+                } else {
+                    insert(node);                       // not yet: spread it over a lower level.
+                }
+                node = following;
+            }
+        }
+        if (nowTick > currentTick) {
+            currentTick = nowTick;
+        }
+        return due;
+    }
+
+    // this method returns the tick of the next slot advance has to process, or Long.MAX_VALUE if the
+    // wheel is empty, and stores the slot's level in eventLevel. The lowest level with a slot at or
+    // after the current tick always comes first. (On levels above 0 the slot of the current tick is
+    // always empty: a task whose slot that was has already been moved down.)
+    long nextEvent() {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            int current = (int) (currentTick >>> shift) & (SLOTS - 1);
+            long slots = occupied[level] & (-1L << current);
+            if (slots != 0) {
+                eventLevel = level;
+                long above = shift + SLOT_BITS >= 64 ? 0 : (currentTick >>> (shift + SLOT_BITS)) << (shift + SLOT_BITS);
+                return above | ((long) Long.numberOfTrailingZeros(slots) << shift);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    // this method puts a node into the slot for its deadline, at the front of the slot's list.
+    void insert(int node) {
+        long deadline = deadlines[node];
+        int level = (63 - Long.numberOfLeadingZeros(deadline ^ currentTick)) / SLOT_BITS;  // 0 if they are equal.
+        int slot = level * SLOTS + ((int) (deadline >>> (SLOT_BITS * level)) & (SLOTS - 1));
+        int head = heads[slot];
+        next[node] = head;
+        prev[node] = NONE;
+        if (head != NONE) {
+            prev[head] = node;
+        }
+        heads[slot] = node;
+        slotOf[node] = slot;
+        occupied[level] |= 1L << (slot & (SLOTS - 1));
+    }
+
+    // this method takes a node from the free list (or a new one), growing the arrays if they are full.
+    int allocate() {
+        int node = free;
+        if (node != NONE) {
+            free = next[node];
+            return node;
+        }
+        if (used == tasks.length) {
+            int length = used <= PriorityQueue.MAX_CAPACITY / 2 ? used * 2 : PriorityQueue.MAX_CAPACITY;
+            if (length == used) {
+                throw new OutOfMemoryError("Timing wheel cannot hold more than " + used + " tasks.");
+            }
+            tasks = Arrays.copyOf(tasks, length);
+            priorities = Arrays.copyOf(priorities, length);
+            deadlines = Arrays.copyOf(deadlines, length);
+            next = Arrays.copyOf(next, length);
+            prev = Arrays.copyOf(prev, length);
+            slotOf = Arrays.copyOf(slotOf, length);
+            generations = Arrays.copyOf(generations, length);
+        }
+        return used++;
+    }
+
+    // this method puts a node back on the free list. The timer of its task is stale from now on.
+    void release(int node) {
+        tasks[node] = null;             // remove the reference to the task name.
+        slotOf[node] = NONE;
+        generations[node]++;
+        next[node] = free;
+        free = node;
+    }
+
+    // this method removes every task and makes every timer handed out so far stale. The current tick
+    // stays where it is.
+    void clear() {
+        Arrays.fill(tasks, 0, used, null);
+        Arrays.fill(slotOf, 0, used, NONE);
+        for (int node = 0; node < used; node++) {
+            generations[node]++;
+        }
+        Arrays.fill(heads, NONE);
+        Arrays.fill(occupied, 0);
+        used = 0;
+        free = NONE;
+        size = 0;
+    }
+}
@@ -0,0 +1,93 @@
+package pq;                         // the tests live in the same package as the classes they test.
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;                    // every test uses a fixed seed, so a failure can be replayed.
+import org.junit.jupiter.api.Test;
+
+// BatchCommandProcessorTest description:
+// Random command traces (with odd spacing, \r\n line ends, comments, bad lines, non-ASCII names and
+// a few lines longer than the input buffer) are run through BatchCommandProcessor, and the output is
+// compared with what a model prints: a second PriorityQueue that gets the same operations directly.
+// The input stream hands out the trace in small random pieces, so lines are split across reads.
+class BatchCommandProcessorTest {
+
+    @Test
+    void aRandomTraceMatchesTheModel() throws IOException {
+        Random random = new Random(11);
+        StringBuilder trace = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        PriorityQueue model = new PriorityQueue();
+        int lines = 20_000;
+        for (int line = 1; line <= lines; line++) {
+            String space = random.nextInt(10) == 0 ? " \t " : " ";
+            int op = random.nextInt(20);
+            if (op < 8) {
+                String name = random.nextInt(50) == 0 ? "é€-" + "x".repeat(random.nextInt(100_000)) : "task" + line;
+                int priority = random.nextInt(1000);
+                trace.append(space.substring(1)).append("enqueue").append(space).append(name).append(space).append(priority);
+                model.enqueue(name, priority);
+            } else if (op < 12) {
+                trace.append("dequeue");
+                expected.append(model.isEmpty() ? "EMPTY" : model.dequeue()).append('\n');
+            } else if (op < 14) {
+                trace.append("peek").append(space);
+                expected.append(model.isEmpty() ? "EMPTY" : model.peekTask() + " " + model.peekPriority()).append('\n');
+            } else if (op < 15) {
+                trace.append("size");
+                expected.append(model.size()).append('\n');
+            } else if (op < 16) {
+                trace.append("clear");
+                model.clear();
+            } else if (op < 17) {
+                trace.append(random.nextBoolean() ? "# a comment" : "   ");
+            } else {
+                String[] bad = {"enqueue onlyname", "enqueue a -1", "enqueue a 99999999999", "enqueue a 1 2", "peek now", "jump"};
+                String[] why = {"enqueue needs a task and a priority", "priority must be a positive integer",
+                        "priority is too large", "unexpected word after the priority",
+                        "unexpected word after the command", "unknown command"};
+                int which = random.nextInt(bad.length);
+                trace.append(bad[which]);
+                expected.append("error: line ").append(line).append(": ").append(why[which]).append('\n');
+            }
+            if (line < lines || random.nextBoolean()) {
+                trace.append(random.nextInt(5) == 0 ? "\r\n" : "\n");   // the last line may have no newline.
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        InputStream in = new Trickle(trace.toString().getBytes(StandardCharsets.UTF_8), random);
+        BatchCommandProcessor processor = new BatchCommandProcessor(new PriorityQueue(), in, out);
+        assertEquals(lines, processor.run());
+        assertEquals(expected.toString(), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void theProcessorRunsAgainstAnyTaskQueue() throws IOException {
+        String trace = "enqueue b 2\nenqueue a 1\nenqueue c 1\npeek\ndequeue\ndequeue\nsize\n";
+        for (TaskQueue queue : new TaskQueue[] {new BucketQueue(10), new RadixHeap()}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new BatchCommandProcessor(queue, new ByteArrayInputStream(trace.getBytes(StandardCharsets.US_ASCII)), out).run();
+            assertEquals("a 1\na\nc\n1\n", out.toString(StandardCharsets.US_ASCII));
+        }
+    }
+
+    // an input stream that returns at most a random few hundred bytes per read.
+    static final class Trickle extends ByteArrayInputStream {
+        final Random random;
+
+        Trickle(byte[] bytes, Random random) {
+            super(bytes);
+            this.random = random;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, 1 + random.nextInt(500)));
+        }
+    }
+}
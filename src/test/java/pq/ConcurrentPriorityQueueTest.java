@@ -0,0 +1,89 @@
+package pq;                         // the tests live in the same package as the classes they test.
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;                    // every test uses a fixed seed, so a failure can be replayed.
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;      // the tasks the consumers have taken so far.
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;         // rethrows what went wrong in a producer or consumer.
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+// ConcurrentPriorityQueueTest description:
+// A producer/consumer stress test of ConcurrentPriorityQueue: several producers enqueue uniquely
+// named tasks while several consumers take them, some with poll and some with take and a timeout,
+// and in the end every task must have been taken exactly once and the queue must be empty. With one
+// sub-queue the queue is not relaxed any more, which a single thread checks against the sorted order.
+class ConcurrentPriorityQueueTest {
+    static final int PRODUCERS = 4;
+    static final int CONSUMERS = 4;
+    static final int TASKS_PER_PRODUCER = 50_000;
+
+    @Test
+    void everyTaskIsTakenExactlyOnce() throws Exception {
+        ConcurrentPriorityQueue queue = new ConcurrentPriorityQueue(8, 2);
+        int total = PRODUCERS * TASKS_PER_PRODUCER;
+        Set<String> taken = ConcurrentHashMap.newKeySet();
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS + CONSUMERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < CONSUMERS; c++) {
+                boolean polls = c % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    while (count.get() < total && !Thread.currentThread().isInterrupted()) {
+                        String task = polls ? queue.poll() : queue.take(1, TimeUnit.MILLISECONDS);
+                        if (task != null) {
+                            assertTrue(taken.add(task), task + " was taken twice");
+                            count.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int p = 0; p < PRODUCERS; p++) {
+                int producer = p;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(producer);
+                    for (int i = 0; i < TASKS_PER_PRODUCER; i++) {
+                        queue.enqueue("p" + producer + "-" + i, random.nextInt(1000));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(total, taken.size());
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        assertNull(queue.take(1, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void oneSubQueueDequeuesInOrder() {
+        Random random = new Random(7);
+        ConcurrentPriorityQueue queue = new ConcurrentPriorityQueue(1, 1);
+        List<Integer> model = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            int priority = random.nextInt(500);
+            queue.enqueue("task" + i, priority);
+            model.add(priority);
+        }
+        model.sort(null);
+        for (int priority : model) {
+            assertEquals(priority, queue.peekPriority());
+            queue.dequeue();
+        }
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,204 @@
+package pq;                         // the tests live in the same package as the classes they test.
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;                 // the timers of tasks that left the wheel.
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;                   // the model: task name -> when it is due and its priority.
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;                    // every test uses a fixed seed, so a failure can be replayed.
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+// DelayedJobQueueTest description:
+// Checks of DelayedJobQueue (and the TimingWheel under it) with a fake clock the test moves by hand.
+// Random schedules, cancels and clock moves are checked against a model of the waiting tasks: a task
+// must never come out before its time, must come out at most one tick after it, and the tasks that
+// come out together must come out by priority. A cancel fails only for a task that is already due,
+// and the timers of tasks that left the wheel must stay stale after their nodes are reused. The
+// clock starts just before the long wraps around, like System.nanoTime may. Aging, deadlines too far
+// away to count and the priority ceiling of aging have their own tests.
+class DelayedJobQueueTest {
+    static final long TICK = 1_000;             // 1 microsecond ticks, in nanoseconds.
+
+    // a waiting task of the model: its deadline in nanoseconds from the origin, its priority and timer.
+    static final class Waiting {
+        final long due;
+        final int priority;
+        final long timer;
+
+        Waiting(long due, int priority, long timer) {
+            this.due = due;
+            this.priority = priority;
+            this.timer = timer;
+        }
+    }
+
+    @Test
+    void tasksComeOutOnTimeAndByPriority() {
+        Random random = new Random(4);
+        long origin = Long.MAX_VALUE - 50_000_000;  // wraps around about 50 ms into the test.
+        long[] clock = {origin};
+        DelayedJobQueue queue = new DelayedJobQueue(TICK, 0, () -> clock[0]);
+        Map<String, Waiting> model = new HashMap<>();
+        List<Long> stale = new ArrayList<>();
+        for (int step = 0; step < 20_000; step++) {
+            long now = clock[0] - origin;
+            int op = random.nextInt(10);
+            if (op < 5) {
+                String name = "task" + step;
+                int priority = random.nextInt(100);
+                long delay = random.nextInt(4) == 0 ? random.nextInt(300 * (int) TICK) : random.nextInt(10 * (int) TICK);
+                long timer = random.nextBoolean()
+                        ? queue.schedule(name, priority, delay, TimeUnit.NANOSECONDS)
+                        : queue.scheduleAt(name, priority, clock[0] + delay);
+                assertEquals(delay <= 0, timer == -1);
+                model.put(name, new Waiting(now + delay, priority, timer));
+            } else if (op < 6 && !stale.isEmpty() && random.nextBoolean()) {
+                long timer = stale.get(random.nextInt(stale.size()));
+                assertFalse(queue.cancel(timer), "a stale timer cancelled the task that reused its node");
+            } else if (op < 6 && !model.isEmpty()) {
+                String name = model.keySet().iterator().next();
+                Waiting waiting = model.get(name);
+                if (waiting.timer != -1) {
+                    if (queue.cancel(waiting.timer)) {
+                        model.remove(name);
+                    } else {                        // promoted already: it stays for drain.
+                        assertTrue(waiting.due <= now, "a task that is not due could not be cancelled");
+                        model.put(name, new Waiting(waiting.due, waiting.priority, -1));
+                    }
+                    assertFalse(queue.cancel(waiting.timer));
+                    stale.add(waiting.timer);
+                }
+            } else if (op < 9) {
+                clock[0] += random.nextInt(5 * (int) TICK);
+            } else {
+                drain(queue, model, stale, clock[0] - origin);
+            }
+        }
+        clock[0] += 1_000 * TICK;
+        drain(queue, model, stale, clock[0] - origin);
+        assertTrue(model.isEmpty());
+        assertEquals(0, queue.delayed());
+    }
+
+    // dequeues every task that is due now and checks them against the model. The timers of the
+    // dequeued tasks are added to stale.
+    static void drain(DelayedJobQueue queue, Map<String, Waiting> model, List<Long> stale, long now) {
+        int last = Integer.MIN_VALUE;
+        while (!queue.isEmpty()) {
+            int priority = queue.peekPriority();
+            String name = queue.dequeue();
+            Waiting waiting = model.remove(name);
+            assertNotNull(waiting, "dequeued " + name + " twice or after it was cancelled");
+            if (waiting.timer != -1) {
+                stale.add(waiting.timer);
+            }
+            assertEquals(waiting.priority, priority);
+            assertTrue(waiting.due <= now, name + " came out before its time");
+            assertTrue(priority >= last, "the due tasks did not come out by priority");
+            last = priority;
+        }
+        int waiting = 0;
+        for (Waiting task : model.values()) {
+            assertTrue(task.due > now - TICK, "a task was not due one tick after its time");
+            if (task.timer != -1) {
+                waiting++;
+            }
+        }
+        assertEquals(model.size(), waiting);
+        assertEquals(waiting, queue.delayed());
+    }
+
+    @Test
+    void waitingTasksAgeAheadOfNewOnes() {
+        long[] clock = {0};
+        long aging = 10 * TICK;
+        DelayedJobQueue queue = new DelayedJobQueue(TICK, aging, () -> clock[0]);
+        queue.enqueue("old", 50);
+        clock[0] += 40 * aging;
+        queue.enqueue("new", 20);
+        assertEquals(10, queue.peekPriority());     // "old" has gained 40 levels.
+        assertEquals("old", queue.dequeue());
+        assertEquals(20, queue.peekPriority());
+
+        // far enough on for the keys to be rebased, more than once; the order must not change, but an
+        // iterator over the due tasks must notice the keys moved.
+        queue.schedule("later", 0, 5 * aging, TimeUnit.NANOSECONDS);
+        for (int i = 0; i < 3; i++) {
+            clock[0] += DelayedJobQueue.REBASE_INTERVALS * aging;
+            queue.enqueue("fresh" + i, 5);
+        }
+        Iterator<Job> iterator = queue.ready.iterator();
+        queue.rebase(queue.baseInterval);           // a shift by 0 still moves every key in place.
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+        assertEquals("new", queue.dequeue());
+        assertEquals("later", queue.dequeue());
+        assertEquals("fresh0", queue.dequeue());
+        assertEquals("fresh1", queue.dequeue());
+        assertEquals("fresh2", queue.dequeue());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void aDeadlineTooFarToCountIsNeverDue() {
+        long[] clock = {Long.MAX_VALUE - 5};
+        DelayedJobQueue queue = new DelayedJobQueue(TICK, 0, () -> clock[0]);
+        clock[0] += 10 * TICK;
+        long never = queue.schedule("never", 1, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        long days = queue.schedule("days", 1, Long.MAX_VALUE, TimeUnit.DAYS);
+        assertTrue(never != -1 && days != -1);
+        clock[0] += Long.MAX_VALUE / 2;
+        assertTrue(queue.isEmpty());
+        assertEquals(2, queue.delayed());
+        assertTrue(queue.cancel(never));
+        assertTrue(queue.cancel(days));
+        assertEquals(0, queue.delayed());
+    }
+
+    @Test
+    void aTimerDoesNotCancelTheTaskThatReusedItsNode() {
+        long[] clock = {0};
+        DelayedJobQueue queue = new DelayedJobQueue(TICK, 0, () -> clock[0]);
+        long first = queue.schedule("first", 1, 5 * TICK, TimeUnit.NANOSECONDS);
+        clock[0] += 10 * TICK;
+        assertEquals(1, queue.promoteDue());        // its node goes back on the free list.
+        long second = queue.schedule("second", 1, 5 * TICK, TimeUnit.NANOSECONDS);
+        assertEquals((int) first, (int) second, "the second task should reuse the node");
+        assertFalse(queue.cancel(first));
+        assertEquals(1, queue.delayed());
+        assertEquals("first", queue.dequeue());
+
+        long third = queue.schedule("third", 1, 5 * TICK, TimeUnit.NANOSECONDS);
+        queue.clear();
+        long fourth = queue.schedule("fourth", 1, 5 * TICK, TimeUnit.NANOSECONDS);
+        assertFalse(queue.cancel(second));
+        assertFalse(queue.cancel(third));
+        assertEquals(1, queue.delayed());
+        assertTrue(queue.cancel(fourth));
+        assertEquals(0, queue.delayed());
+    }
+
+    @Test
+    void agingRejectsPrioritiesItCannotOrder() {
+        DelayedJobQueue queue = new DelayedJobQueue(TICK, TICK, () -> 0L);
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue("a", -1));
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue("a", DelayedJobQueue.MAX_AGED_PRIORITY + 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> queue.schedule("a", Integer.MAX_VALUE, 1, TimeUnit.SECONDS));
+        queue.enqueue("a", DelayedJobQueue.MAX_AGED_PRIORITY);
+        assertEquals(DelayedJobQueue.MAX_AGED_PRIORITY, queue.peekPriority());
+
+        DelayedJobQueue plain = new DelayedJobQueue(TICK, 0, () -> 0L);
+        plain.enqueue("b", Integer.MIN_VALUE);      // without aging any priority goes.
+        plain.enqueue("c", Integer.MAX_VALUE);
+        assertEquals("b", plain.dequeue());
+        assertEquals("c", plain.dequeue());
+    }
+}
@@ -0,0 +1,270 @@
+package pq;                         // the tests live in the same package as the classes they test.
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;                    // every test uses a fixed seed, so a failure can be replayed.
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;    // a fresh directory for the files of every test.
+
+// DurablePriorityQueueTest description:
+// Crash and reopen checks of DurablePriorityQueue. The model is the list of operations the queue has
+// committed: replayed into a plain PriorityQueue it must give exactly the tasks the reopened queue
+// recovers, in the same order, because recovery restores the same heap layout. A crash is simulated
+// with abandon(), which drops the batch and closes the log without forcing it. The files are also read
+// and written through map windows smaller than a record, and a snapshot that cannot be written must
+// leave the queue working on its old files.
+class DurablePriorityQueueTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void aCrashLosesOnlyWhatWasNotSynced() throws IOException {
+        Random random = new Random(5);
+        List<Op> committed = new ArrayList<>();
+        DurablePriorityQueue queue = open();
+        int names = 0;
+        for (int round = 0; round < 30; round++) {
+            List<Op> unsynced = new ArrayList<>();
+            int steps = random.nextInt(200);
+            for (int step = 0; step < steps; step++) {
+                Op op = Op.random(random, names++, queue.size());
+                op.applyTo(queue);
+                unsynced.add(op);
+                if (random.nextInt(50) == 0) {
+                    queue.sync();
+                    committed.addAll(unsynced);
+                    unsynced.clear();
+                }
+            }
+            queue.abandon();
+            DurablePriorityQueue abandoned = queue;
+            assertThrows(IllegalStateException.class, () -> abandoned.enqueue("late", 1));
+            queue = open();
+            assertSameTasks(replay(committed), queue, false);
+        }
+        assertSameTasks(replay(committed), queue, true);
+        queue.close();
+    }
+
+    @Test
+    void operationsAreCommittedWithinTheIntervalWithoutASync() throws Exception {
+        DurablePriorityQueue queue = DurablePriorityQueue.open(directory, 64 * 1024, 5, 64L * 1024 * 1024);
+        queue.enqueue("synced", 0);
+        queue.sync();
+        for (int i = 0; i < 5; i++) {
+            queue.enqueue("task" + i, i);
+        }
+        Thread.sleep(100);                          // many commit intervals, nothing else happens.
+        queue.abandon();
+        DurablePriorityQueue reopened = DurablePriorityQueue.open(directory);
+        assertEquals(6, reopened.size());
+        reopened.close();
+    }
+
+    @Test
+    void snapshotsAndReopenKeepTheOrder() throws IOException {
+        Random random = new Random(6);
+        List<Op> ops = new ArrayList<>();
+        DurablePriorityQueue queue = DurablePriorityQueue.open(directory, 256, 1, 2048);
+        for (int step = 0; step < 5000; step++) {
+            Op op = Op.random(random, step, queue.size());
+            op.applyTo(queue);
+            ops.add(op);
+            if (step % 1000 == 999) {
+                queue.close();
+                queue = DurablePriorityQueue.open(directory, 256, 1, 2048);
+            }
+        }
+        assertTrue(Files.exists(directory.resolve(DurablePriorityQueue.SNAPSHOT_FILE)));
+        assertTrue(queue.generation > 1, "the small threshold should have taken several snapshots");
+        queue.close();
+        queue = DurablePriorityQueue.open(directory);
+        assertSameTasks(replay(ops), queue, true);
+        queue.close();
+    }
+
+    @Test
+    void aTornFrameIsCutOff() throws IOException {
+        DurablePriorityQueue queue = open();
+        for (int i = 0; i < 100; i++) {
+            queue.enqueue("task" + i, 100 - i);
+        }
+        queue.close();
+        Path log = directory.resolve(DurablePriorityQueue.LOG_FILE);
+        long size = Files.size(log);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.APPEND)) {
+            ByteBuffer torn = ByteBuffer.allocate(40);
+            torn.putInt(500).putInt(12345).put(new byte[32]).flip();  // says 500 bytes, has 32.
+            channel.write(torn);
+        }
+        queue = open();
+        assertEquals(100, queue.size());
+        assertEquals(size, Files.size(log), "the torn frame was not cut off");
+        queue.enqueue("after", -1);                 // the log takes new frames after the cut.
+        queue.close();
+        queue = open();
+        assertEquals(101, queue.size());
+        assertEquals("after", queue.dequeue());
+        queue.close();
+    }
+
+    @Test
+    void smallMapWindowsReadAndWriteTheSameFiles() throws IOException {
+        Random random = new Random(9);
+        PriorityQueue model = new PriorityQueue();
+        for (int i = 0; i < 3000; i++) {
+            String name = random.nextInt(10) == 0 ? "é€😀-".repeat(1 + random.nextInt(40)) + i : "task" + i;
+            model.enqueue(name, random.nextInt(100));
+        }
+        Path path = directory.resolve("small.snapshot");
+        DurablePriorityQueue.writeSnapshot(path, model, 7, 64);  // names longer than a window, too.
+        long bytes = DurablePriorityQueue.HEADER_BYTES + 4;
+        for (int i = 0; i < model.size(); i++) {
+            bytes += 8 + model.tasks[model.handles[i]].getBytes(StandardCharsets.UTF_8).length;
+        }
+        assertEquals(bytes, Files.size(path), "the snapshot must hold exactly the UTF-8 names");
+        PriorityQueue loaded = new PriorityQueue();
+        assertEquals(7, DurablePriorityQueue.readSnapshot(path, loaded, 100));
+        PriorityQueue copy = new PriorityQueue();
+        DurablePriorityQueue.readSnapshot(path, copy, DurablePriorityQueue.MAP_WINDOW_BYTES);
+        while (!model.isEmpty()) {
+            assertEquals(model.peekPriority(), loaded.peekPriority());
+            String task = model.dequeue();
+            assertEquals(task, loaded.dequeue());
+            assertEquals(task, copy.dequeue());
+        }
+
+        DurablePriorityQueue queue = DurablePriorityQueue.open(directory, 256, 60_000, 64L * 1024 * 1024);
+        for (int i = 0; i < 2000; i++) {
+            Op.random(random, i, queue.size()).applyTo(queue);
+        }
+        queue.close();
+        try (FileChannel log = FileChannel.open(directory.resolve(DurablePriorityQueue.LOG_FILE))) {
+            PriorityQueue windowed = new PriorityQueue();
+            PriorityQueue whole = new PriorityQueue();
+            assertEquals(log.size(), DurablePriorityQueue.replay(log, windowed, 1000));
+            assertEquals(log.size(), DurablePriorityQueue.replay(log, whole, DurablePriorityQueue.MAP_WINDOW_BYTES));
+            assertEquals(whole.size(), windowed.size());
+            while (!whole.isEmpty()) {
+                assertEquals(whole.dequeue(), windowed.dequeue());
+            }
+        }
+    }
+
+    @Test
+    void aSnapshotThatCannotBeWrittenDoesNotFailTheQueue() throws IOException {
+        Path blocker = directory.resolve(DurablePriorityQueue.SNAPSHOT_FILE + ".tmp");
+        Files.createDirectories(blocker.resolve("in-the-way"));   // the temporary file cannot be made.
+        DurablePriorityQueue queue = DurablePriorityQueue.open(directory, 256, 60_000, 2048);
+        queue.enqueue("first", 1);
+        assertThrows(IOException.class, queue::snapshot);
+        for (int i = 0; i < 1000; i++) {
+            queue.enqueue("task" + i, i);           // crosses the threshold many times.
+        }
+        assertTrue(queue.snapshotFailure != null);
+        assertEquals(0, queue.generation);
+        queue.close();
+
+        Files.delete(blocker.resolve("in-the-way"));
+        Files.delete(blocker);
+        queue = DurablePriorityQueue.open(directory, 256, 60_000, 2048);
+        assertEquals(1001, queue.size());
+        queue.snapshot();
+        assertEquals(1, queue.generation);
+        queue.close();
+        queue = DurablePriorityQueue.open(directory);
+        assertEquals(1001, queue.size());
+        assertEquals("task0", queue.dequeue());
+        queue.close();
+    }
+
+    // opens the queue with a batch big enough that no frame is written between syncs, and a commit
+    // interval long enough that the committer never forces the log on its own.
+    DurablePriorityQueue open() throws IOException {
+        return DurablePriorityQueue.open(directory, 64 * 1024, 60_000, 64L * 1024 * 1024);
+    }
+
+    // one operation on the queue: an enqueue (with a name), a dequeue or a clear. The same operation
+    // is applied to the durable queue and, later, replayed into the model.
+    static final class Op {
+        final char kind;            // 'e', 'd' or 'c'.
+        final String name;
+        final int priority;
+
+        Op(char kind, String name, int priority) {
+            this.kind = kind;
+            this.name = name;
+            this.priority = priority;
+        }
+
+        // returns a random operation: a dequeue only if the queue has tasks, and a clear rarely.
+        static Op random(Random random, int number, int size) {
+            int op = random.nextInt(100);
+            if (op < 40 && size > 0) {
+                return new Op('d', null, 0);
+            }
+            if (op == 99) {
+                return new Op('c', null, 0);
+            }
+            return new Op('e', "task" + number, random.nextInt(50));
+        }
+
+        void applyTo(DurablePriorityQueue queue) {
+            if (kind == 'e') {
+                queue.enqueue(name, priority);
+            } else if (kind == 'd') {
+                queue.dequeue();
+            } else {
+                queue.clear();
+            }
+        }
+
+        void applyTo(PriorityQueue queue) {
+            if (kind == 'e') {
+                queue.enqueue(name, priority);
+            } else if (kind == 'd') {
+                queue.dequeue();
+            } else {
+                queue.clear();
+            }
+        }
+    }
+
+    // returns a plain PriorityQueue with the operations applied.
+    static PriorityQueue replay(List<Op> ops) {
+        PriorityQueue queue = new PriorityQueue();
+        for (Op op : ops) {
+            op.applyTo(queue);
+        }
+        return queue;
+    }
+
+    // checks the queue holds the tasks of the model; with drain, dequeues both and checks every task
+    // comes out in the same order, otherwise only the sizes and fronts are compared.
+    static void assertSameTasks(PriorityQueue model, DurablePriorityQueue queue, boolean drain) {
+        assertEquals(model.size(), queue.size());
+        if (!drain) {
+            if (!model.isEmpty()) {
+                assertEquals(model.peekPriority(), queue.peekPriority());
+                assertEquals(model.peekTask(), queue.peekTask());
+            }
+            return;
+        }
+        while (!model.isEmpty()) {
+            assertEquals(model.peekPriority(), queue.peekPriority());
+            assertEquals(model.dequeue(), queue.dequeue());
+        }
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,102 @@
+package pq;                         // the tests live in the same package as the classes they test.
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.NoSuchElementException;
+import java.util.Random;                    // every test uses a fixed seed, so a failure can be replayed.
+import java.util.TreeMap;                   // the model: tasks by (priority, order of arrival).
+import org.junit.jupiter.api.Test;
+
+// FifoQueueTest description:
+// BucketQueue and RadixHeap both promise that tasks with the same priority come out in the order
+// they went in. Random mixes of enqueues and dequeues are checked against a sorted map keyed by the
+// priority and then the arrival number, whose first entry is always the task that must come next.
+// RadixHeap only takes priorities that are not more urgent than the last one dequeued, so its
+// priorities are drawn from that point on. Peeks between the enqueues check the front the queues
+// remember between dequeues.
+class FifoQueueTest {
+
+    @Test
+    void bucketQueueKeepsArrivalOrderWithinAPriority() {
+        int maxPriority = 40;
+        checkFifo(new BucketQueue(maxPriority), new Random(1), (random, last) -> random.nextInt(maxPriority + 1));
+    }
+
+    @Test
+    void radixHeapKeepsArrivalOrderWithinAPriority() {
+        checkFifo(new RadixHeap(), new Random(2), (random, last) -> last + random.nextInt(8));
+    }
+
+    @Test
+    void radixHeapPeeksBeforeTheFirstDequeue() {
+        Random random = new Random(10);
+        RadixHeap heap = new RadixHeap();
+        TreeMap<Long, String> model = new TreeMap<>();
+        for (int i = 0; i < 200_000; i++) {             // a scan per peek would take minutes here.
+            int priority = random.nextInt();            // all over the range, most land in bucket 32.
+            heap.enqueue("task" + i, priority);
+            model.put(((long) priority << 32) | i, "task" + i);
+            assertEquals(model.firstEntry().getValue(), heap.peekTask());
+            assertEquals((int) (model.firstKey() >> 32), heap.peekPriority());
+        }
+        while (!model.isEmpty()) {
+            assertEquals(model.pollFirstEntry().getValue(), heap.dequeue());
+        }
+    }
+
+    @Test
+    void radixHeapRejectsAMoreUrgentTask() {
+        RadixHeap heap = new RadixHeap();
+        heap.enqueue("a", 10);
+        heap.enqueue("b", 20);
+        heap.dequeue();
+        assertThrows(IllegalArgumentException.class, () -> heap.enqueue("c", 9));
+        heap.clear();
+        heap.enqueue("c", 9);                       // after a clear anything goes again.
+        assertEquals("c", heap.dequeue());
+        assertThrows(NoSuchElementException.class, heap::dequeue);
+    }
+
+    @Test
+    void bucketQueueRejectsPrioritiesOutOfRange() {
+        BucketQueue queue = new BucketQueue(5);
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue("a", 6));
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue("a", -1));
+        assertTrue(queue.isEmpty());
+    }
+
+    // draws the priority of the next task; last is the last priority dequeued (0 at the start).
+    interface PriorityDraw {
+        int next(Random random, int last);
+    }
+
+    // applies random enqueues and dequeues to the queue and to the model and checks every dequeued
+    // task is the first one of the model.
+    static void checkFifo(TaskQueue queue, Random random, PriorityDraw draw) {
+        TreeMap<Long, String> model = new TreeMap<>();  // priority << 32 | arrival -> task name.
+        int last = 0;
+        for (int step = 0; step < 100_000; step++) {
+            if (model.isEmpty() || random.nextInt(5) < 3) {
+                int priority = draw.next(random, last);
+                String name = "task" + step;
+                queue.enqueue(name, priority);
+                model.put(((long) priority << 32) | step, name);
+                if (random.nextBoolean()) {
+                    assertEquals(model.firstEntry().getValue(), queue.peekTask());
+                }
+            } else {
+                long first = model.firstKey();
+                assertEquals((int) (first >>> 32), queue.peekPriority());
+                assertEquals(model.remove(first), queue.dequeue());
+                last = (int) (first >>> 32);
+            }
+            assertEquals(model.size(), queue.size());
+        }
+        while (!model.isEmpty()) {
+            assertEquals(model.pollFirstEntry().getValue(), queue.dequeue());
+        }
+        assertTrue(queue.isEmpty());
+    }
+}
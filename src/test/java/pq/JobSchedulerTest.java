@@ -0,0 +1,177 @@
+package pq;                         // the tests live in the same package as the classes they test.
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;                    // every test uses a fixed seed, so a failure can be replayed.
+import java.util.concurrent.AbstractExecutorService;   // the base of an executor that refuses everything.
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch; // holds the one worker so the jobs pile up in the queue.
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+// JobSchedulerTest description:
+// Checks of JobScheduler with a single worker that is held by a first job until the others have
+// been submitted, so they all wait in the queue. The jobs that are not cancelled must then run once
+// each, in priority order, and the cancelled ones never. Backpressure, shutdown and an executor that
+// refuses the workers are checked separately: a refused job must not stay in the queue.
+class JobSchedulerTest {
+
+    @Test
+    void jobsRunInPriorityOrderAndCancelledJobsNever() throws Exception {
+        Random random = new Random(8);
+        JobScheduler scheduler = JobScheduler.platformThreads(1, 10_000);
+        CountDownLatch gate = new CountDownLatch(1);
+        scheduler.submit("gate", Integer.MIN_VALUE, () -> {
+            gate.await();
+            return null;
+        });
+        List<Integer> ran = new ArrayList<>();          // only the one worker adds to it.
+        Map<Integer, Integer> priorities = new HashMap<>();
+        Map<Integer, CompletableFuture<Integer>> futures = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            int number = i;
+            int priority = random.nextInt(100);
+            priorities.put(number, priority);
+            futures.put(number, scheduler.submit("job" + i, priority, () -> {
+                ran.add(number);
+                return number;
+            }));
+        }
+        int cancelled = 0;
+        for (CompletableFuture<Integer> future : futures.values()) {
+            if (random.nextInt(4) == 0) {
+                assertTrue(future.cancel(false));
+                cancelled++;
+            }
+        }
+        assertEquals(2000 - cancelled, scheduler.queued(), "cancelled jobs must leave the queue");
+        gate.countDown();
+        scheduler.close();
+        assertTrue(scheduler.executor.isShutdown());
+
+        assertEquals(2000 - cancelled, ran.size());
+        int last = Integer.MIN_VALUE;
+        for (int number : ran) {
+            assertEquals(number, futures.remove(number).get());
+            int priority = priorities.get(number);
+            assertTrue(priority >= last, "job" + number + " ran out of priority order");
+            last = priority;
+        }
+        for (CompletableFuture<Integer> future : futures.values()) {
+            assertTrue(future.isCancelled(), "a job that was not cancelled did not run");
+        }
+    }
+
+    @Test
+    void offerGivesUpOnAFullQueue() throws Exception {
+        JobScheduler scheduler = JobScheduler.platformThreads(1, 2);
+        CountDownLatch gate = new CountDownLatch(1);
+        scheduler.submit("gate", 0, () -> {
+            gate.await();
+            return null;
+        });
+        waitUntilQueued(scheduler, 0);                  // the worker has taken the gate job.
+        assertNotNull(scheduler.offer(new Job("a", 1, () -> { }), 0, TimeUnit.SECONDS));
+        assertNotNull(scheduler.offer(new Job("b", 1, () -> { }), 0, TimeUnit.SECONDS));
+        assertNull(scheduler.offer(new Job("c", 1, () -> { }), 10, TimeUnit.MILLISECONDS));
+        assertEquals(2, scheduler.queued());
+        gate.countDown();
+        scheduler.close();
+        assertEquals(0, scheduler.queued());
+    }
+
+    @Test
+    void shutdownNowCancelsTheWaitingJobs() throws Exception {
+        JobScheduler scheduler = JobScheduler.platformThreads(1, 100);
+        CountDownLatch gate = new CountDownLatch(1);
+        CompletableFuture<Object> running = scheduler.submit("gate", 0, () -> {
+            gate.await();
+            return "done";
+        });
+        waitUntilQueued(scheduler, 0);
+        CompletableFuture<Object> waiting = scheduler.submit(new Job("waiting", 1, () -> { }));
+        scheduler.shutdownNow();
+        assertTrue(waiting.isCancelled());
+        assertThrows(RejectedExecutionException.class, () -> scheduler.submit(new Job("late", 1, () -> { })));
+        gate.countDown();
+        assertTrue(scheduler.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals("done", running.get());
+    }
+
+    @Test
+    void awaitTerminationWithoutShutdownKeepsTakingJobs() throws Exception {
+        JobScheduler scheduler = JobScheduler.platformThreads(2, 100);
+        assertEquals(1, scheduler.submit("first", 0, () -> 1).get());
+        assertTrue(scheduler.awaitTermination(10, TimeUnit.SECONDS));
+        assertFalse(scheduler.executor.isShutdown());
+        assertEquals(2, scheduler.submit("second", 0, () -> 2).get());
+        scheduler.close();
+        assertTrue(scheduler.executor.isShutdown());
+    }
+
+    @Test
+    void aJobTheExecutorRefusesDoesNotStayQueued() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        JobScheduler stopped = new JobScheduler(executor, 1, 100);
+        executor.shutdown();                            // shut down behind the scheduler's back.
+        JobScheduler refusing = new JobScheduler(new RefusingExecutor(), 1, 100);
+        for (JobScheduler scheduler : List.of(stopped, refusing)) {
+            for (int i = 0; i < 2; i++) {
+                assertThrows(RejectedExecutionException.class,
+                        () -> scheduler.submit(new Job("job", 1, () -> { })));
+                assertEquals(0, scheduler.queued());
+                assertEquals(0, scheduler.running);
+            }
+            assertTrue(scheduler.awaitTermination(1, TimeUnit.SECONDS), "nothing may be left waiting");
+        }
+    }
+
+    // an executor that is not shut down but refuses every task, like a saturated pool.
+    static final class RefusingExecutor extends AbstractExecutorService {
+        public void execute(Runnable command) {
+            throw new RejectedExecutionException("No thread is free.");
+        }
+
+        public void shutdown() {
+        }
+
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        public boolean isShutdown() {
+            return false;
+        }
+
+        public boolean isTerminated() {
+            return false;
+        }
+
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return false;
+        }
+    }
+
+    // waits until the scheduler has the given number of jobs waiting.
+    static void waitUntilQueued(JobScheduler scheduler, int queued) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (scheduler.queued() != queued) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("still " + scheduler.queued() + " jobs queued");
+            }
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package pq;                         // the tests live in the same package as the classes they test.
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;                    // every test uses a fixed seed, so a failure can be replayed.
+import java.util.TreeMap;                   // the model: priority -> name -> tasks with that name.
+import org.junit.jupiter.api.Test;
+
+// OffHeapPriorityQueueTest description:
+// Randomized checks of OffHeapPriorityQueue against a model that counts the tasks of every priority
+// and name. Ties are broken by name id inside the queue, so a dequeued task only has to have the
+// smallest priority and a name the model holds at that priority. Names come from a small pool that
+// keeps coming back and from a stream of new names (some non-ASCII, some long), so names are freed,
+// their ids reused, the hash table entries shifted back and the arena compacted over and over. The
+// name bookkeeping (distinct names, live bytes) must match the model, the id of a name must not
+// change while a task has it, and the off-heap memory must stay flat.
+class OffHeapPriorityQueueTest {
+
+    @Test
+    void namesAndOrderFollowTheModel() {
+        int compactions = 0;
+        for (long seed = 15; seed < 18; seed++) {
+            Random random = new Random(seed);
+            TreeMap<Integer, Map<String, Integer>> model = new TreeMap<>();
+            Map<String, Integer> tasksOf = new HashMap<>();     // name -> tasks with it in the queue.
+            Map<String, Long> idOf = new HashMap<>();           // name -> its id while it has tasks.
+            long liveBytes = 0;
+            int size = 0;
+            long early = 0;                 // the most off-heap memory in the first 100k steps
+            long late = 0;                  // and afterwards.
+            try (OffHeapPriorityQueue queue = new OffHeapPriorityQueue()) {
+                for (int step = 0; step < 1_000_000; step++) {
+                    int op = random.nextInt(100);
+                    if (size == 0 || (op < 50 && size < 5000)) {
+                        String name = name(random, step);
+                        int priority = random.nextInt(200) - 100;
+                        long id = queue.enqueue(name, priority);
+                        Long known = idOf.putIfAbsent(name, id);
+                        assertEquals(known == null ? id : known, id, "the id of " + name + " changed");
+                        if (tasksOf.merge(name, 1, Integer::sum) == 1) {
+                            liveBytes += name.getBytes(StandardCharsets.UTF_8).length;
+                        }
+                        model.computeIfAbsent(priority, p -> new HashMap<>()).merge(name, 1, Integer::sum);
+                        size++;
+                    } else if (op < 95 || size < 10) {
+                        long dead = queue.deadBytes;
+                        String name = dequeue(queue, model);
+                        if (queue.deadBytes < dead) {
+                            compactions++;
+                        }
+                        if (tasksOf.merge(name, -1, Integer::sum) == 0) {
+                            tasksOf.remove(name);
+                            idOf.remove(name);
+                            liveBytes -= name.getBytes(StandardCharsets.UTF_8).length;
+                        }
+                        size--;
+                    } else if (op < 99) {
+                        String task = queue.peekTask();
+                        assertTrue(model.firstEntry().getValue().containsKey(task));
+                    } else if (random.nextInt(5000) == 0) {      // rarely, so dead bytes can pile up.
+                        queue.clear();
+                        model.clear();
+                        tasksOf.clear();
+                        idOf.clear();
+                        liveBytes = 0;
+                        size = 0;
+                    }
+                    assertEquals(size, queue.size());
+                    if (step % 1000 == 0) {
+                        assertEquals(tasksOf.size(), queue.names);
+                        assertEquals(liveBytes, queue.liveBytes);
+                    }
+                    if (step < 100_000) {
+                        early = Math.max(early, queue.offHeapBytes());
+                    } else {
+                        late = Math.max(late, queue.offHeapBytes());
+                    }
+                }
+                assertTrue(late <= 2 * early, "the off-heap memory grew from " + early + " to " + late);
+                while (size > 0) {
+                    dequeue(queue, model);
+                    size--;
+                }
+                assertEquals(0, queue.names);
+                assertEquals(0, queue.liveBytes);
+            }
+        }
+        assertTrue(compactions >= 5, "only " + compactions + " compactions");
+    }
+
+    // dequeues a task and checks it has the smallest priority of the model and one of the names the
+    // model holds at that priority, then takes it out of the model. It returns the name.
+    static String dequeue(OffHeapPriorityQueue queue, TreeMap<Integer, Map<String, Integer>> model) {
+        int priority = model.firstKey();
+        assertEquals(priority, queue.peekPriority());
+        String name = queue.dequeue();
+        Map<String, Integer> names = model.get(priority);
+        Integer left = names.get(name);
+        assertTrue(left != null, name + " is not a task of priority " + priority);
+        if (left == 1) {
+            names.remove(name);
+            if (names.isEmpty()) {
+                model.remove(priority);
+            }
+        } else {
+            names.put(name, left - 1);
+        }
+        return name;
+    }
+
+    // the name of a new task: mostly one of a small pool, otherwise a name never used before, which
+    // is sometimes non-ASCII and sometimes long.
+    static String name(Random random, int step) {
+        int kind = random.nextInt(10);
+        if (kind < 4) {
+            return "pool" + random.nextInt(50);
+        }
+        if (kind == 4) {
+            return "ünïcödé-" + step;
+        }
+        if (kind == 5) {
+            return "long-" + step + "-" + "x".repeat(random.nextInt(1000));
+        }
+        return "task-" + step;
+    }
+
+    @Test
+    void aClosedQueueRejectsWork() {
+        OffHeapPriorityQueue queue = new OffHeapPriorityQueue();
+        queue.enqueue("a", 1);
+        queue.close();
+        queue.close();                              // closing twice does nothing.
+        assertEquals(0, queue.size());
+        assertThrows(IllegalStateException.class, () -> queue.enqueue("b", 1));
+        assertThrows(IllegalStateException.class, queue::clear);
+        assertThrows(NoSuchElementException.class, queue::dequeue);
+    }
+
+    @Test
+    void aNameMustFitInAnArenaChunk() {
+        try (OffHeapPriorityQueue queue = new OffHeapPriorityQueue()) {
+            String tooLong = "x".repeat(OffHeapPriorityQueue.MAX_NAME_BYTES + 1);
+            assertThrows(IllegalArgumentException.class, () -> queue.enqueue(tooLong, 1));
+            assertThrows(IllegalArgumentException.class, () -> queue.enqueue("é" + tooLong, 1));
+            String longest = "y".repeat(OffHeapPriorityQueue.MAX_NAME_BYTES);
+            queue.enqueue(longest, 2);
+            queue.enqueue("short", 1);
+            assertEquals("short", queue.dequeue());
+            assertEquals(longest, queue.dequeue());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package pq;                         // the tests live in the same package as the classes they test.
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;                   // the model: task name -> priority, for every queue.
+import java.util.List;
+import java.util.Map;
+import java.util.Random;                    // every test uses a fixed seed, so a failure can be replayed.
+import org.junit.jupiter.api.Test;
+
+// PairingHeapTest description:
+// Randomized checks of PairingHeap. A few queues (some sharing an arena, some with one of their own)
+// get random enqueues and dequeues, are melded into each other and split by a filter, and every queue
+// is checked against its own model: a map from each of its (uniquely named) tasks to the priority.
+// A dequeued task must be in the model with the smallest priority there.
+class PairingHeapTest {
+
+    @Test
+    void meldAndSplitFollowTheModel() {
+        Random random = new Random(3);
+        List<PairingHeap> queues = new ArrayList<>();
+        List<Map<String, Integer>> models = new ArrayList<>();
+        PairingHeap first = new PairingHeap();
+        for (int i = 0; i < 6; i++) {
+            queues.add(i < 4 ? (i == 0 ? first : new PairingHeap(first)) : new PairingHeap());
+            models.add(new HashMap<>());
+        }
+        int names = 0;
+        for (int step = 0; step < 40_000; step++) {
+            int q = random.nextInt(queues.size());
+            PairingHeap queue = queues.get(q);
+            Map<String, Integer> model = models.get(q);
+            int op = random.nextInt(20);
+            if (op < 10 || model.isEmpty()) {
+                String name = "task" + names++;
+                int priority = random.nextInt(500);
+                queue.enqueue(name, priority);
+                model.put(name, priority);
+            } else if (op < 17) {
+                checkDequeue(queue, model);
+            } else if (op < 19) {
+                int other = random.nextInt(queues.size());
+                if (other != q) {
+                    queue.meld(queues.get(other));
+                    model.putAll(models.get(other));
+                    models.get(other).clear();
+                    assertTrue(queues.get(other).isEmpty());
+                }
+            } else {
+                int cut = random.nextInt(500);
+                PairingHeap moved = queue.split((name, priority) -> priority < cut);
+                Map<String, Integer> movedModel = new HashMap<>();
+                model.entrySet().removeIf(entry -> {
+                    if (entry.getValue() < cut) {
+                        movedModel.put(entry.getKey(), entry.getValue());
+                        return true;
+                    }
+                    return false;
+                });
+                assertEquals(movedModel.size(), moved.size());
+                queue.meld(moved);                      // same arena: put them straight back.
+                model.putAll(movedModel);
+            }
+            assertEquals(model.size(), queue.size());
+        }
+        for (int q = 0; q < queues.size(); q++) {
+            while (!models.get(q).isEmpty()) {
+                checkDequeue(queues.get(q), models.get(q));
+            }
+            assertTrue(queues.get(q).isEmpty());
+        }
+    }
+
+    @Test
+    void splitMovesExactlyTheAcceptedTasks() {
+        PairingHeap queue = new PairingHeap();
+        for (int i = 0; i < 1000; i++) {
+            queue.enqueue("task" + i, i % 97);
+        }
+        PairingHeap even = queue.split((name, priority) -> priority % 2 == 0);
+        assertEquals(1000, queue.size() + even.size());
+        int last = Integer.MIN_VALUE;
+        while (!even.isEmpty()) {
+            int priority = even.peekPriority();
+            assertEquals(0, priority % 2);
+            assertTrue(priority >= last);
+            last = priority;
+            assertNotNull(even.dequeue());
+        }
+        while (!queue.isEmpty()) {
+            assertEquals(1, queue.peekPriority() % 2);
+            queue.dequeue();
+        }
+        assertThrows(IllegalArgumentException.class, () -> queue.meld(queue));
+    }
+
+    // dequeues one task and checks it against the model.
+    static void checkDequeue(PairingHeap queue, Map<String, Integer> model) {
+        int min = Integer.MAX_VALUE;
+        for (int priority : model.values()) {
+            min = Math.min(min, priority);
+        }
+        assertEquals(min, queue.peekPriority());
+        String task = queue.dequeue();
+        assertEquals(Integer.valueOf(min), model.remove(task), "dequeued " + task);
+    }
+}
@@ -0,0 +1,192 @@
+package pq;                         // the tests live in the same package as the classes they test.
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;                 // the model and the expected orders.
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;                    // every test uses a fixed seed, so a failure can be replayed.
+import org.junit.jupiter.api.Test;
+
+// PriorityQueueTest description:
+// Randomized checks of PriorityQueue against a model: a map from every live handle to its task's
+// priority. Random enqueues, dequeues, priority updates and removes by handle are applied to both,
+// for every arity, and after each step the front of the queue must be a task of the smallest
+// priority in the model. Handles of tasks that left the queue must stay stale even after their
+// place is reused. enqueueAll must hand back working handles for the tasks it added. topK and the
+// iterator must list the priorities of the sorted model without changing the queue.
+class PriorityQueueTest {
+    static final int[] ARITIES = {2, 4, 8};
+
+    @Test
+    void handlesFollowTheModel() {
+        for (int arity : ARITIES) {
+            Random random = new Random(arity);
+            PriorityQueue queue = new PriorityQueue(1, arity);
+            Map<Long, Integer> model = new HashMap<>();     // live handle -> priority.
+            Map<Long, String> names = new HashMap<>();
+            List<Long> stale = new ArrayList<>();           // handles whose task has left the queue.
+            for (int step = 0; step < 50_000; step++) {
+                int op = random.nextInt(10);
+                if (model.isEmpty() || op < 4) {
+                    int priority = random.nextInt(1000);
+                    String name = "task" + step;
+                    long handle = queue.enqueue(name, priority);
+                    assertFalse(model.containsKey(handle), "a live handle was handed out twice");
+                    model.put(handle, priority);
+                    names.put(handle, name);
+                } else if (op < 6) {
+                    int priority = queue.peekPriority();
+                    long handle = queue.peekHandle();
+                    assertEquals(model.get(handle), priority);
+                    assertEquals(names.get(handle), queue.dequeue());
+                    model.remove(handle);
+                    stale.add(handle);
+                } else if (op < 8) {
+                    long handle = anyKey(model, random);
+                    int priority = random.nextInt(1000);
+                    queue.updatePriority(handle, priority);
+                    model.put(handle, priority);
+                } else if (op < 9) {
+                    long handle = anyKey(model, random);
+                    assertEquals(names.get(handle), queue.remove(handle));
+                    model.remove(handle);
+                    stale.add(handle);
+                } else if (!stale.isEmpty()) {
+                    long handle = stale.get(random.nextInt(stale.size()));
+                    assertFalse(queue.contains(handle));
+                    assertThrows(NoSuchElementException.class, () -> queue.remove(handle));
+                    assertThrows(NoSuchElementException.class, () -> queue.updatePriority(handle, 0));
+                }
+                assertEquals(model.size(), queue.size());
+                if (!model.isEmpty()) {
+                    assertEquals(min(model), queue.peekPriority());
+                }
+            }
+            for (long handle : model.keySet()) {
+                assertTrue(queue.contains(handle));
+            }
+        }
+    }
+
+    @Test
+    void staleHandlesSurviveClearAndTrim() {
+        PriorityQueue queue = new PriorityQueue(2);
+        long first = queue.enqueue("first", 1);
+        queue.dequeue();
+        long second = queue.enqueue("second", 2);
+        assertEquals((int) first, (int) second, "the freed place is reused right away");
+        assertFalse(queue.contains(first));
+        assertTrue(queue.contains(second));
+
+        queue.clear();
+        assertFalse(queue.contains(second));
+
+        List<Long> old = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            old.add(queue.enqueue("old", i));
+        }
+        while (!queue.isEmpty()) {
+            queue.dequeue();
+        }
+        queue.trimToSize();
+        for (int i = 0; i < 200; i++) {
+            queue.enqueue("new", i);                        // grows back over the dropped places.
+        }
+        for (long handle : old) {
+            assertFalse(queue.contains(handle));
+        }
+    }
+
+    @Test
+    void enqueueAllReturnsTheHandles() {
+        PriorityQueue queue = new PriorityQueue();
+        queue.enqueue("before", 5);
+        long[] handles = queue.enqueueAll(new String[] {"a", "b", "c"}, new int[] {3, 1, 2});
+        long[] jobs = queue.enqueueAll(List.of(new Job("d", 0), new Job("e", 9)));
+        assertEquals(6, queue.size());
+        assertEquals("a", queue.remove(handles[0]));
+        queue.updatePriority(jobs[1], -1);
+        assertEquals("e", queue.dequeue());
+        assertEquals("d", queue.dequeue());
+        assertEquals("b", queue.remove(handles[1]));
+        assertEquals("c", queue.dequeue());
+        assertEquals("before", queue.dequeue());
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueueAll(new String[] {"x"}, new int[0]));
+    }
+
+    // returns a random key of the (non-empty) map.
+    static long anyKey(Map<Long, Integer> model, Random random) {
+        int skip = random.nextInt(model.size());
+        for (long key : model.keySet()) {
+            if (skip-- == 0) {
+                return key;
+            }
+        }
+        throw new AssertionError();
+    }
+
+    @Test
+    void topKAndIteratorMatchTheSortedModel() {
+        for (int arity : ARITIES) {
+            Random random = new Random(100 + arity);
+            PriorityQueue queue = new PriorityQueue(16, arity);
+            List<Integer> model = new ArrayList<>();
+            for (int round = 0; round < 200; round++) {
+                int adds = random.nextInt(200);
+                for (int i = 0; i < adds; i++) {
+                    int priority = random.nextInt(50);
+                    queue.enqueue("t", priority);
+                    model.add(priority);
+                }
+                int removes = random.nextInt(Math.max(1, model.size() / 2));
+                for (int i = 0; i < removes && !model.isEmpty(); i++) {
+                    model.remove(Integer.valueOf(queue.peekPriority()));
+                    queue.dequeue();
+                }
+                List<Integer> sorted = new ArrayList<>(model);
+                sorted.sort(null);
+                int k = random.nextInt(sorted.size() + 10);
+                int[] top = new int[Math.min(k, sorted.size())];
+                int[] count = {0};
+                assertEquals(top.length, queue.topK((name, priority) -> top[count[0]++] = priority, k));
+                assertArrayEquals(sorted.subList(0, top.length).stream().mapToInt(Integer::intValue).toArray(), top);
+
+                List<Integer> iterated = new ArrayList<>();
+                for (Job job : queue) {
+                    iterated.add(job.getPriority());
+                }
+                assertEquals(sorted, iterated);
+                assertEquals(model.size(), queue.size(), "topK and the iterator must not change the queue");
+            }
+        }
+    }
+
+    @Test
+    void iteratorFailsWhenTheQueueChanges() {
+        PriorityQueue queue = new PriorityQueue();
+        queue.enqueue("a", 1);
+        queue.enqueue("b", 2);
+        Iterator<Job> iterator = queue.iterator();
+        iterator.next();
+        queue.enqueue("c", 0);
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    // returns the smallest priority in the (non-empty) map.
+    static int min(Map<Long, Integer> model) {
+        int min = Integer.MAX_VALUE;
+        for (int priority : model.values()) {
+            min = Math.min(min, priority);
+        }
+        return min;
+    }
+}
@@ -0,0 +1,170 @@
+package pq;                         // the tests live in the same package as the classes they test.
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;                    // every test uses a fixed seed, so a failure can be replayed.
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+
+// QueueMetricsTest description:
+// Checks of QueueMetrics and LatencyHistogram. Random operations on a PriorityQueue with metrics
+// attached are counted by hand as well, and every counter, the depth and its high-water mark must
+// match. The histogram buckets are checked to cover every value with at most 1/32 error, and the
+// percentiles against the exact percentiles of the sorted values.
+class QueueMetricsTest {
+
+    @Test
+    void countersFollowTheModel() {
+        Random random = new Random(12);
+        QueueMetrics metrics = new QueueMetrics(4);
+        PriorityQueue queue = new PriorityQueue();
+        queue.setMetrics(metrics);
+        long enqueues = 0, dequeues = 0, peeks = 0, updates = 0, removes = 0, clears = 0;
+        long timed = 0;                             // enqueue and dequeue calls, every 4th is timed.
+        int highWater = 0;
+        List<Long> handles = new ArrayList<>();
+        for (int step = 0; step < 50_000; step++) {
+            int op = random.nextInt(100);
+            if (op < 40 || queue.isEmpty()) {
+                handles.add(queue.enqueue("task" + step, random.nextInt(1000)));
+                enqueues++;
+                timed++;
+            } else if (op < 70) {
+                queue.dequeue();
+                dequeues++;
+                timed++;
+            } else if (op < 80) {
+                queue.peekTask();
+                queue.peekPriority();
+                peeks += 2;
+            } else if (op < 88) {
+                long handle = handles.get(random.nextInt(handles.size()));
+                if (queue.contains(handle)) {
+                    if (random.nextBoolean()) {
+                        queue.updatePriority(handle, random.nextInt(1000));
+                        updates++;
+                    } else {
+                        queue.remove(handle);
+                        removes++;
+                    }
+                }
+            } else if (op < 94) {
+                int count = random.nextInt(20);
+                String[] names = new String[count];
+                int[] priorities = new int[count];
+                Arrays.fill(names, "bulk");
+                queue.enqueueAll(names, priorities);
+                enqueues += count;
+            } else if (op < 99) {
+                int drained = queue.drainTo((name, priority) -> { }, random.nextInt(10));
+                dequeues += drained;
+            } else {
+                queue.clear();
+                clears++;
+                handles.clear();
+            }
+            highWater = Math.max(highWater, queue.size());
+        }
+        QueueMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(enqueues, snapshot.enqueues);
+        assertEquals(dequeues, snapshot.dequeues);
+        assertEquals(peeks, snapshot.peeks);
+        assertEquals(updates, snapshot.updates);
+        assertEquals(removes, snapshot.removes);
+        assertEquals(clears, snapshot.clears);
+        assertEquals(queue.size(), snapshot.depth);
+        assertEquals(highWater, snapshot.highWaterDepth);
+        assertTrue(snapshot.swaps <= snapshot.comparisons && snapshot.comparisons > 0);
+        long sampled = total(metrics.enqueueLatency.counts()) + total(metrics.dequeueLatency.counts());
+        assertEquals((timed + 3) / 4, sampled, "every 4th enqueue or dequeue must be timed");
+
+        metrics.reset();
+        assertEquals(0, metrics.getEnqueueCount());
+        assertEquals(0, metrics.getDequeueLatencyMax());
+        assertEquals(queue.size(), metrics.getHighWaterDepth(), "reset starts the high-water mark at the depth");
+        queue.setMetrics(null);
+        queue.enqueue("unseen", 1);
+        assertEquals(0, metrics.getEnqueueCount());
+        assertThrows(IllegalArgumentException.class, () -> new QueueMetrics(3));
+    }
+
+    @Test
+    void bucketsCoverEveryValueWithinOneThirtySecond() {
+        Random random = new Random(13);
+        for (int bucket = 1; bucket < LatencyHistogram.BUCKETS; bucket++) {
+            long low = LatencyHistogram.highestValue(bucket - 1) + 1;
+            long high = LatencyHistogram.highestValue(bucket);
+            assertTrue(low <= high);
+            assertEquals(bucket, LatencyHistogram.bucket(low));
+            assertEquals(bucket, LatencyHistogram.bucket(high));
+            assertTrue(high - low <= Math.max(0, low / LatencyHistogram.SUB_BUCKETS), "bucket " + bucket + " is too wide");
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValue(LatencyHistogram.BUCKETS - 1));
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong() >>> (1 + random.nextInt(63));   // never negative.
+            long high = LatencyHistogram.highestValue(LatencyHistogram.bucket(value));
+            assertTrue(value <= high && high - value <= value / LatencyHistogram.SUB_BUCKETS);
+        }
+    }
+
+    @Test
+    void percentilesMatchTheSortedValues() {
+        Random random = new Random(14);
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, LatencyHistogram.percentile(histogram.counts(), 0.5));
+        long[] values = new long[20_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 25);     // spread over many powers of two.
+            histogram.record(values[i]);
+        }
+        histogram.record(-5);                       // a clock that went backwards counts as 0.
+        long[] sorted = Arrays.copyOf(values, values.length + 1);
+        Arrays.sort(sorted);
+        long[] counts = histogram.counts();
+        for (double fraction : new double[] {0.0, 0.5, 0.9, 0.99, 0.999, 1.0}) {
+            long exact = sorted[(int) Math.max(0, Math.ceil(fraction * sorted.length) - 1)];
+            long reported = LatencyHistogram.percentile(counts, fraction);
+            assertTrue(reported >= exact && reported - exact <= exact / LatencyHistogram.SUB_BUCKETS,
+                    "p" + fraction + " was " + reported + ", exactly " + exact);
+        }
+        histogram.reset();
+        assertEquals(0, total(histogram.counts()));
+    }
+
+    @Test
+    void theMetricsShowUpOverJmx() throws Exception {
+        QueueMetrics metrics = new QueueMetrics();
+        PriorityQueue queue = new PriorityQueue();
+        queue.setMetrics(metrics);
+        queue.enqueue("a", 1);
+        queue.enqueue("b", 2);
+        ObjectName name = metrics.register("test queue");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(2L, server.getAttribute(name, "EnqueueCount"));
+            assertEquals(2L, server.getAttribute(name, "Depth"));
+            server.invoke(name, "reset", null, null);
+            assertEquals(0L, server.getAttribute(name, "EnqueueCount"));
+        } finally {
+            metrics.unregister();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+        metrics.unregister();                       // a second unregister does nothing.
+    }
+
+    static long total(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+}